@@ -0,0 +1,103 @@
+package com.example.wgkompass.benchmarks;
+
+import com.example.wgkompass.models.Aufgabe;
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The BenchmarkData class creates reproducible in-memory entities for the benchmarks,
+ * so they measure the calculations without a database.
+ */
+final class BenchmarkData {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private BenchmarkData() {
+        // Private Constructor to prevent instantiation
+    }
+
+    /**
+     * Creates a WG with the given ID.
+     *
+     * @param id The ID of the WG.
+     * @return The WG.
+     */
+    static WG wg(long id) {
+        WG wg = new WG();
+        wg.setId(id);
+        wg.setName("Beispiel WG");
+        return wg;
+    }
+
+    /**
+     * Creates members with the IDs 1 to count.
+     *
+     * @param count The number of members.
+     * @param wg The WG of the members.
+     * @return The members.
+     */
+    static List<Mitglied> mitglieder(int count, WG wg) {
+        List<Mitglied> mitglieder = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Mitglied mitglied = new Mitglied();
+            mitglied.setId((long) i);
+            mitglied.setVorname("Max");
+            mitglied.setNachname("Mustermann");
+            mitglied.setWg(wg);
+            mitglieder.add(mitglied);
+        }
+        return mitglieder;
+    }
+
+    /**
+     * Creates inventory items bought within the last 30 years with typical prices and depreciation rates.
+     *
+     * @param count The number of inventory items.
+     * @param wg The WG of the inventory items.
+     * @return The inventory items.
+     */
+    static List<Inventar> inventare(int count, WG wg) {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        List<Inventar> inventare = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Inventar inventar = new Inventar();
+            inventar.setId((long) i);
+            inventar.setName("Inventar " + i);
+            inventar.setPreis(10.0 + random.nextInt(2000));
+            inventar.setKaufdatum(new Date(now - random.nextInt(30 * 365) * MILLIS_PER_DAY));
+            inventar.setAbschreibungssatz(5.0 * (1 + random.nextInt(6)));
+            inventar.setWg(wg);
+            inventare.add(inventar);
+        }
+        return inventare;
+    }
+
+    /**
+     * Creates tasks assigned round robin to the given members.
+     *
+     * @param count The number of tasks.
+     * @param mitglieder The members the tasks are assigned to.
+     * @return The tasks.
+     */
+    static List<Aufgabe> aufgaben(int count, List<Mitglied> mitglieder) {
+        List<Aufgabe> aufgaben = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Mitglied mitglied = mitglieder.get(i % mitglieder.size());
+            Aufgabe aufgabe = new Aufgabe();
+            aufgabe.setId((long) i);
+            aufgabe.setTitel("Aufgabe " + i);
+            aufgabe.setBeschreibung("Beschreibung der Aufgabe " + i);
+            aufgabe.setWg(mitglied.getWg());
+            aufgabe.setVerantwortlichesMitglied(mitglied);
+            aufgaben.add(aufgabe);
+        }
+        return aufgaben;
+    }
+}
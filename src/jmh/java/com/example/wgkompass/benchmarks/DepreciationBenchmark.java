@@ -0,0 +1,66 @@
+package com.example.wgkompass.benchmarks;
+
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.services.DepreciationMethod;
+import com.example.wgkompass.services.ValuationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the depreciation computation of ValuationService for both depreciation methods,
+ * including the preparation of the valuation date that is done once per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DepreciationBenchmark {
+
+    @Param({"1000"})
+    private int items;
+
+    @Param({"DECLINING_BALANCE", "LINEAR"})
+    private DepreciationMethod method;
+
+    private final ValuationService valuationService = new ValuationService();
+
+    private List<Inventar> inventare;
+
+    /**
+     * Creates the inventory items.
+     */
+    @Setup
+    public void setUp() {
+        inventare = BenchmarkData.inventare(items, BenchmarkData.wg(1));
+    }
+
+    /**
+     * Calculates the sum of the current values of all items.
+     *
+     * @return The sum, consumed by JMH.
+     */
+    @Benchmark
+    public double currentValues() {
+        ValuationService.Valuation valuation = valuationService.forDate(LocalDate.now(), method);
+        double sum = 0;
+        for (Inventar inventar : inventare) {
+            sum += valuation.currentValue(inventar);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.wgkompass.benchmarks;
+
+import com.example.wgkompass.dto.DissolveResultDto;
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.services.DepreciationMethod;
+import com.example.wgkompass.services.DissolveAccumulator;
+import com.example.wgkompass.services.ValuationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the dissolution calculation of DissolveService without the database:
+ * valuing every mapped item and settling the debts over a grid of item and member counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DissolveBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int items;
+
+    @Param({"3", "10", "50"})
+    private int members;
+
+    private final ValuationService valuationService = new ValuationService();
+
+    private long[] memberIds;
+    private Inventar[] inventare;
+    private int[] takers;
+
+    /**
+     * Creates the inventory items and assigns each of them to a member.
+     */
+    @Setup
+    public void setUp() {
+        WG wg = BenchmarkData.wg(1);
+        memberIds = new long[members];
+        for (int i = 0; i < members; i++) {
+            memberIds[i] = i + 1;
+        }
+        List<Inventar> list = BenchmarkData.inventare(items, wg);
+        inventare = list.toArray(new Inventar[0]);
+        takers = new int[items];
+        for (int i = 0; i < items; i++) {
+            takers[i] = (int) memberIds[i % members];
+        }
+    }
+
+    /**
+     * Values all items and builds the pairwise obligations.
+     *
+     * @return The obligations, consumed by JMH.
+     */
+    @Benchmark
+    public List<DissolveResultDto.MemberFinancialObligation> pairwise() {
+        return accumulate().toObligations();
+    }
+
+    /**
+     * Values all items and builds the net settlement.
+     *
+     * @return The obligations, consumed by JMH.
+     */
+    @Benchmark
+    public List<DissolveResultDto.MemberFinancialObligation> net() {
+        return accumulate().toNetObligations();
+    }
+
+    private DissolveAccumulator accumulate() {
+        ValuationService.Valuation valuation = valuationService.forDate(LocalDate.now(), DepreciationMethod.DECLINING_BALANCE);
+        DissolveAccumulator accumulator = new DissolveAccumulator(memberIds);
+        for (int i = 0; i < inventare.length; i++) {
+            accumulator.add(accumulator.slotOf(takers[i]), valuation.currentValue(inventare[i]));
+        }
+        return accumulator;
+    }
+}
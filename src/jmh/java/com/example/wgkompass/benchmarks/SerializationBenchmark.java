@@ -0,0 +1,163 @@
+package com.example.wgkompass.benchmarks;
+
+import com.example.wgkompass.dto.AufgabeDto;
+import com.example.wgkompass.dto.InventarDto;
+import com.example.wgkompass.models.Aufgabe;
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.utils.DtoMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmarks the conversion of entity lists to DTOs and their JSON serialization,
+ * using an ObjectMapper configured like the one of Spring MVC, with and without the Blackbird module.
+ * The gzip benchmarks add the compression of the response, and every benchmark reports the size of
+ * the response as the secondary result "bytes".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"default", "blackbird"})
+    private String mapper;
+
+    private ObjectMapper objectMapper;
+
+    private List<Inventar> inventare;
+    private List<Aufgabe> aufgaben;
+
+    /**
+     * Creates the inventory items and tasks.
+     */
+    @Setup
+    public void setUp() {
+        objectMapper = "blackbird".equals(mapper)
+                ? Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        WG wg = BenchmarkData.wg(1);
+        List<Mitglied> mitglieder = BenchmarkData.mitglieder(5, wg);
+        inventare = BenchmarkData.inventare(size, wg);
+        aufgaben = BenchmarkData.aufgaben(size, mitglieder);
+    }
+
+    /**
+     * Converts the inventory items to DTOs and serializes them.
+     *
+     * @param wire The size of the response.
+     * @return The JSON, consumed by JMH.
+     * @throws JsonProcessingException if the serialization fails.
+     */
+    @Benchmark
+    public byte[] inventarDtos(Wire wire) throws JsonProcessingException {
+        return wire.record(serializeInventarDtos());
+    }
+
+    /**
+     * Converts the tasks to DTOs and serializes them.
+     *
+     * @param wire The size of the response.
+     * @return The JSON, consumed by JMH.
+     * @throws JsonProcessingException if the serialization fails.
+     */
+    @Benchmark
+    public byte[] aufgabeDtos(Wire wire) throws JsonProcessingException {
+        return wire.record(serializeAufgabeDtos());
+    }
+
+    /**
+     * Converts the inventory items to DTOs, serializes and compresses them like a compressed response.
+     *
+     * @param wire The size of the compressed response.
+     * @return The compressed JSON, consumed by JMH.
+     * @throws IOException if the serialization fails.
+     */
+    @Benchmark
+    public byte[] inventarDtosGzip(Wire wire) throws IOException {
+        return wire.record(gzip(serializeInventarDtos()));
+    }
+
+    /**
+     * Converts the tasks to DTOs, serializes and compresses them like a compressed response.
+     *
+     * @param wire The size of the compressed response.
+     * @return The compressed JSON, consumed by JMH.
+     * @throws IOException if the serialization fails.
+     */
+    @Benchmark
+    public byte[] aufgabeDtosGzip(Wire wire) throws IOException {
+        return wire.record(gzip(serializeAufgabeDtos()));
+    }
+
+    private byte[] serializeInventarDtos() throws JsonProcessingException {
+        List<InventarDto> dtos = inventare.stream().map(DtoMapper::toInventarDto).toList();
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    private byte[] serializeAufgabeDtos() throws JsonProcessingException {
+        List<AufgabeDto> dtos = aufgaben.stream().map(DtoMapper::toAufgabeDto).toList();
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reports the number of bytes of the last response of an iteration as secondary result.
+     * JMH sums events over the measurement iterations, so the size of one response is the result
+     * divided by the number of iterations.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wire {
+
+        public long bytes;
+
+        /**
+         * Resets the size before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+
+        private byte[] record(byte[] response) {
+            bytes = response.length;
+            return response;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.wgkompass.benchmarks;
+
+import com.example.wgkompass.utils.ValidationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks ValidationUtils.containsIllegalCharacters against the regular expression it replaced,
+ * for a legal name and a name whose illegal character comes last.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"Gemeinsame Kueche 2", "Ungueltige Zeichen @"})
+    private String input;
+
+    /**
+     * Checks the input with the character scanner.
+     *
+     * @return The result, consumed by JMH.
+     */
+    @Benchmark
+    public boolean scanner() {
+        return ValidationUtils.containsIllegalCharacters(input);
+    }
+
+    /**
+     * Checks the input with the regular expression used before, which is compiled on every call.
+     *
+     * @return The result, consumed by JMH.
+     */
+    @Benchmark
+    public boolean regexBaseline() {
+        return !input.matches("^[a-zA-ZäöüÄÖÜ0-9\\s]+$");
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.wgkompass.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DatabaseConcurrencyFilter limits the number of requests that are handled at the same time.
+ * With virtual threads Tomcat no longer caps the concurrent requests by the size of its thread pool,
+ * so thousands of requests could wait for a database connection at once and run into the connection timeout.
+ * The filter lets at most as many requests through as configured, which bounds the requests waiting for each connection.
+ * Further requests wait on a semaphore, which is cheap on a virtual thread, and are answered with
+ * 503 Service Unavailable if no permit becomes free in time. The actuator endpoints are not limited.
+ * The filter is only active when requests actually run on virtual threads, i.e. they are enabled and Java 21 or newer is used.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabaseConcurrencyFilter extends OncePerRequestFilter {
+
+    /**
+     * The name of the counter of requests that are rejected because no permit became free in time.
+     */
+    private static final String REJECTED_COUNTER = "wgkompass.requests.rejected";
+
+    private final Semaphore permits;
+
+    private final Duration acquireTimeout;
+
+    private final Counter rejected;
+
+    /**
+     * Creates the filter with the configured number of concurrent requests.
+     *
+     * @param maxConcurrentRequests The number of requests that are handled at the same time.
+     * @param acquireTimeout The time a request waits for a permit before it is rejected.
+     * @param meterRegistry The registry of the counter of rejected requests.
+     */
+    public DatabaseConcurrencyFilter(@Value("${wgkompass.database.max-concurrent-requests}") int maxConcurrentRequests,
+                                     @Value("${wgkompass.database.acquire-timeout}") Duration acquireTimeout,
+                                     MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeout = acquireTimeout;
+        this.rejected = meterRegistry.counter(REJECTED_COUNTER);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.wgkompass.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The IdGeneratorInitializer moves the ID blocks of the id_generator table past the IDs that already exist.
+ * The entities used to get their IDs from auto-increment columns, so the table generator would otherwise
+ * hand out IDs of existing rows. Hibernate allocates the block ending at the stored value, so the stored
+ * value has to be at least one block above the highest existing ID.
+ * It runs once all beans, including the EntityManagerFactory that creates the schema, are initialized,
+ * but before the web server starts, so no request can allocate an ID block before the table is fixed.
+ */
+@Component
+public class IdGeneratorInitializer implements SmartInitializingSingleton {
+
+    /**
+     * The number of IDs allocated at once, which has to match the allocationSize of the entities' table generators.
+     */
+    private static final int ALLOCATION_SIZE = 50;
+
+    /**
+     * The tables whose IDs are generated, which are also the segment names in the id_generator table.
+     */
+    private static final List<String> TABLES = List.of("wg", "mitglied", "inventar", "aufgabe");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Moves the stored value of every segment above the highest existing ID of its table.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String table : TABLES) {
+            long nextVal = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class) + ALLOCATION_SIZE;
+            Integer segments = jdbcTemplate.queryForObject("select count(*) from id_generator where sequence_name = ?", Integer.class, table);
+            if (segments == null || segments == 0) {
+                jdbcTemplate.update("insert into id_generator (sequence_name, next_val) values (?, ?)", table, nextVal);
+            } else {
+                jdbcTemplate.update("update id_generator set next_val = ? where sequence_name = ? and next_val < ?", nextVal, table, nextVal);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.wgkompass.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * The JacksonConfig class adds modules to the ObjectMapper that Spring Boot builds for the controllers
+ * and replaces the JSON message converter with one that respects the minimum size of compressed responses.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Registers the Blackbird module, which replaces the reflective getter calls of the serializers
+     * with generated lambdas. This lowers the CPU time of the large list responses.
+     *
+     * @return The Blackbird module.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Creates the JSON message converter of the controllers, which replaces the one of Spring Boot.
+     *
+     * @param objectMapper The ObjectMapper built by Spring Boot.
+     * @param minResponseSize The minimum size of a response to be compressed.
+     * @return The JSON message converter.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   @Value("${server.compression.min-response-size}") DataSize minResponseSize) {
+        return new ThresholdJsonHttpMessageConverter(objectMapper, (int) minResponseSize.toBytes());
+    }
+}
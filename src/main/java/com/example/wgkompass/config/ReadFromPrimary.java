@@ -0,0 +1,18 @@
+package com.example.wgkompass.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint that does not tolerate replica lag.
+ * Its read-only transactions read from the primary database, so it sees changes that were just written.
+ * Endpoints of other HTTP methods always use the primary and need no annotation.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromPrimary {
+}
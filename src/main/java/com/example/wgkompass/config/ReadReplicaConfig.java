@@ -0,0 +1,83 @@
+package com.example.wgkompass.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * The ReadReplicaConfig sets up the routing between the primary database and a read replica.
+ * It is only active when "wgkompass.datasource.replica.url" is set; otherwise the single data source
+ * of Spring Boot is used for everything. The primary pool is configured by "spring.datasource.*"
+ * and the replica pool by "wgkompass.datasource.replica.*", with the credentials of the primary as default.
+ */
+@Configuration
+@ConditionalOnProperty(name = "wgkompass.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    /**
+     * Creates the connection pool of the primary database.
+     *
+     * @param properties The datasource properties of Spring Boot.
+     * @return The primary connection pool.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Creates the connection pool of the replica database.
+     * The pool starts even if the replica is down, and a missing connection fails fast so the primary can take over.
+     *
+     * @param properties The datasource properties of Spring Boot, used for the driver.
+     * @param url The JDBC URL of the replica.
+     * @param username The user name of the replica.
+     * @param password The password of the replica.
+     * @return The replica connection pool.
+     */
+    @Bean
+    @ConfigurationProperties("wgkompass.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${wgkompass.datasource.replica.url}") String url,
+                                              @Value("${wgkompass.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${wgkompass.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setInitializationFailTimeout(-1);
+        dataSource.setConnectionTimeout(1000);
+        return dataSource;
+    }
+
+    /**
+     * Creates the data source used by Hibernate and JDBC, which routes read-only transactions to the replica.
+     *
+     * @param primary The primary connection pool.
+     * @param replica The replica connection pool.
+     * @param meterRegistry The registry of the counter of fallbacks to the primary.
+     * @return The routing data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, meterRegistry));
+    }
+}
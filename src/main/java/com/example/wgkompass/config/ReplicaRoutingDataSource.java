@@ -0,0 +1,99 @@
+package com.example.wgkompass.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * The ReplicaRoutingDataSource sends the statements of read-only transactions to the replica database
+ * and everything else to the primary database.
+ * The transaction is only known to be read-only after it has begun, so the data source has to be wrapped
+ * in a LazyConnectionDataSourceProxy, which fetches the connection on the first statement.
+ * If the replica cannot hand out a connection, the primary is used instead.
+ * Requests that do not tolerate replica lag can require the primary for the current thread.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * The name of the counter of read-only connections that were taken from the primary because the replica failed.
+     */
+    private static final String FALLBACK_COUNTER = "wgkompass.datasource.replica.fallback";
+
+    /**
+     * Whether the current thread has to read from the primary, e.g. because its request does not tolerate replica lag.
+     */
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    /**
+     * The lookup keys of the two target data sources.
+     */
+    private enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final DataSource primary;
+
+    private final Counter fallbacks;
+
+    /**
+     * Creates the routing data source.
+     *
+     * @param primary The primary database, which receives all writes.
+     * @param replica The replica database, which receives the read-only transactions.
+     * @param meterRegistry The registry of the counter of fallbacks to the primary.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.fallbacks = meterRegistry.counter(FALLBACK_COUNTER);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Makes the current thread read from the primary until reset is called.
+     */
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Lets the current thread read from the replica again.
+     */
+    public static void reset() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_REQUIRED.get() == null) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return primary.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            fallbacks.increment();
+            log.warn("The replica is not available, reading from the primary instead: {}", e.getMessage());
+            return primary.getConnection();
+        }
+    }
+}
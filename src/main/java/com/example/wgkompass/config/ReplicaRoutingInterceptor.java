@@ -0,0 +1,36 @@
+package com.example.wgkompass.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * The ReplicaRoutingInterceptor decides per endpoint whether a request tolerates replica lag.
+ * GET and HEAD requests read from the replica unless their handler is annotated with ReadFromPrimary.
+ * All other requests use the primary, so the reads that precede a write, like the existence check of an update,
+ * see the latest state.
+ */
+public class ReplicaRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean safe = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        if (!safe || (handler instanceof HandlerMethod handlerMethod && handlerMethod.hasMethodAnnotation(ReadFromPrimary.class))) {
+            ReplicaRoutingDataSource.requirePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the request thread is released while the async part runs elsewhere, which reads from the replica
+        ReplicaRoutingDataSource.reset();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRoutingDataSource.reset();
+    }
+}
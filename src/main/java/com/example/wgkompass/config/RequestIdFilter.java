@@ -0,0 +1,63 @@
+package com.example.wgkompass.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * The RequestIdFilter gives every request an ID, so the SQL statements and log lines of a request can be traced.
+ * A valid X-Request-Id header of the client is taken over, otherwise a random ID is created.
+ * The ID and the request line are put into the logging MDC while the request is handled,
+ * and the ID is sent back in the X-Request-Id response header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    /**
+     * The request and response header containing the ID of the request.
+     */
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    /**
+     * The MDC key of the ID of the request.
+     */
+    public static final String REQUEST_ID_KEY = "requestId";
+
+    /**
+     * The MDC key of the method and URI of the request.
+     */
+    public static final String REQUEST_KEY = "request";
+
+    /**
+     * The IDs of clients that are taken over, which keeps the logs free of arbitrary input.
+     */
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put(REQUEST_ID_KEY, requestId);
+        MDC.put(REQUEST_KEY, request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID_KEY);
+            MDC.remove(REQUEST_KEY);
+        }
+    }
+}
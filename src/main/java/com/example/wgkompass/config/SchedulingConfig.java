@@ -0,0 +1,12 @@
+package com.example.wgkompass.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * The SchedulingConfig enables the scheduled jobs, like the nightly refresh of the valuation snapshots.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
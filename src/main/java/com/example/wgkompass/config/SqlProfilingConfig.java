@@ -0,0 +1,105 @@
+package com.example.wgkompass.config;
+
+import com.example.wgkompass.services.SqlProfilerService;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * The SqlProfilingConfig wraps the data source used by Hibernate and JDBC in a datasource-proxy,
+ * which measures every statement and hands it to the SqlProfilerService.
+ * It replaces "spring.jpa.show-sql", which printed every statement synchronously without its duration.
+ * The profiling and its admin endpoint are active unless "wgkompass.sql.profiling.enabled" is false.
+ */
+@Configuration
+@ConditionalOnProperty(name = SqlProfilingConfig.ENABLED, matchIfMissing = true)
+public class SqlProfilingConfig {
+
+    /**
+     * The property that switches the profiling off when set to false.
+     */
+    public static final String ENABLED = "wgkompass.sql.profiling.enabled";
+
+    /**
+     * The name of the data source bean that is wrapped, which is the one of Spring Boot or the routing data source.
+     */
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    /**
+     * The key of the start time of a statement in its execution info.
+     */
+    private static final String START_NANOS = "startNanos";
+
+    /**
+     * Creates the post processor wrapping the data source.
+     * The profiler is looked up on first use, because post processors are created before the services.
+     *
+     * @param sqlProfilerService The provider of the profiler.
+     * @return The post processor.
+     */
+    @Bean
+    public static BeanPostProcessor sqlProfilingDataSourcePostProcessor(ObjectProvider<SqlProfilerService> sqlProfilerService) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new ProfilingListener(sqlProfilerService))
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * Creates the admin endpoint /actuator/sqlqueries of the profiler.
+     *
+     * @param sqlProfilerService The profiler.
+     * @return The endpoint.
+     */
+    @Bean
+    public SqlQueriesEndpoint sqlQueriesEndpoint(SqlProfilerService sqlProfilerService) {
+        return new SqlQueriesEndpoint(sqlProfilerService);
+    }
+
+    /**
+     * Measures every statement with nanosecond precision and records it once it completed.
+     */
+    private static class ProfilingListener implements QueryExecutionListener {
+
+        private final ObjectProvider<SqlProfilerService> sqlProfilerService;
+
+        private ProfilingListener(ObjectProvider<SqlProfilerService> sqlProfilerService) {
+            this.sqlProfilerService = sqlProfilerService;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            execInfo.addCustomValue(START_NANOS, System.nanoTime());
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            long nanos = System.nanoTime() - execInfo.getCustomValue(START_NANOS, Long.class);
+            SqlProfilerService profiler = sqlProfilerService.getIfAvailable();
+            if (profiler == null) {
+                return;
+            }
+            // a batch of one prepared statement contains a single query, which is recorded once
+            for (QueryInfo queryInfo : queryInfoList) {
+                profiler.record(queryInfo.getQuery(), nanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.wgkompass.config;
+
+import com.example.wgkompass.dto.SqlQueryStatisticsDto;
+import com.example.wgkompass.services.SqlProfilerService;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * The SqlQueriesEndpoint is the admin endpoint /actuator/sqlqueries of the SQL profiler.
+ * It lists the normalized statements with the slowest executions, and the statistics can be reset with DELETE,
+ * e.g. before measuring a single operation.
+ * It is registered by the SqlProfilingConfig, so it only exists while the profiling is enabled.
+ */
+@Endpoint(id = "sqlqueries")
+public class SqlQueriesEndpoint {
+
+    /**
+     * The number of statements listed if no limit is given.
+     */
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final SqlProfilerService sqlProfilerService;
+
+    /**
+     * Creates the endpoint of the given profiler.
+     *
+     * @param sqlProfilerService The profiler whose statistics are listed.
+     */
+    public SqlQueriesEndpoint(SqlProfilerService sqlProfilerService) {
+        this.sqlProfilerService = sqlProfilerService;
+    }
+
+    /**
+     * Retrieves the statistics of the statements with the slowest executions, slowest first.
+     *
+     * @param limit The maximum number of statements, 10 if not given.
+     * @return A list of SqlQueryStatisticsDto objects.
+     */
+    @ReadOperation
+    public List<SqlQueryStatisticsDto> slowest(@Nullable Integer limit) {
+        return sqlProfilerService.getSlowest(limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    /**
+     * Removes all collected statistics.
+     */
+    @DeleteOperation
+    public void reset() {
+        sqlProfilerService.reset();
+    }
+}
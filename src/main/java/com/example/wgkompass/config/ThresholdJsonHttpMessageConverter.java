@@ -0,0 +1,116 @@
+package com.example.wgkompass.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * The ThresholdJsonHttpMessageConverter lets the compression of Tomcat apply its minimum response size to JSON.
+ * Jackson streams the JSON without a Content-Length, and Tomcat compresses every response of unknown length.
+ * This converter holds the JSON back until it exceeds the minimum size: a smaller response is sent with
+ * its Content-Length and stays uncompressed, a larger one is streamed and compressed as before,
+ * so at most the minimum size is buffered per response.
+ */
+public class ThresholdJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final int threshold;
+
+    /**
+     * Creates the converter.
+     *
+     * @param objectMapper The ObjectMapper used for the serialization.
+     * @param threshold The minimum size in bytes of a response to be compressed.
+     */
+    public ThresholdJsonHttpMessageConverter(ObjectMapper objectMapper, int threshold) {
+        super(objectMapper);
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        ThresholdOutputStream body = new ThresholdOutputStream(outputMessage, threshold);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        body.finish();
+    }
+
+    /**
+     * Buffers the body until it exceeds the threshold and writes through afterwards.
+     * The response is only committed when the body of the output message is requested, so the
+     * Content-Length of a small body can still be set at the end.
+     */
+    private static class ThresholdOutputStream extends OutputStream {
+
+        private final HttpOutputMessage outputMessage;
+
+        private final int threshold;
+
+        private ByteArrayOutputStream buffer;
+
+        private OutputStream target;
+
+        private ThresholdOutputStream(HttpOutputMessage outputMessage, int threshold) {
+            this.outputMessage = outputMessage;
+            this.threshold = threshold;
+            this.buffer = new ByteArrayOutputStream(threshold);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (buffer != null && buffer.size() + len <= threshold) {
+                buffer.write(b, off, len);
+                return;
+            }
+            if (buffer != null) {
+                // the body is large enough to be compressed, so it is streamed without a Content-Length
+                target = outputMessage.getBody();
+                buffer.writeTo(target);
+                buffer = null;
+            }
+            target.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Jackson flushes when it is done, which must not commit a body that is still buffered
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        /**
+         * Sends a body that stayed below the threshold with its Content-Length.
+         *
+         * @throws IOException if the body cannot be written.
+         */
+        private void finish() throws IOException {
+            if (buffer != null) {
+                outputMessage.getHeaders().setContentLength(buffer.size());
+                buffer.writeTo(outputMessage.getBody());
+                buffer = null;
+            }
+            outputMessage.getBody().flush();
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.wgkompass.config;
 
+import com.example.wgkompass.utils.KeysetPagination;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -21,10 +24,16 @@ public class WebConfig implements WebMvcConfigurer {
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/**") // allows all endpoints
                         .allowedOrigins(ALLOWED_ORIGINS) // allows cross-origin from specified locations
-                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // allowed methods
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS") // allowed methods
                         .allowedHeaders("*") // allows all headers
+                        .exposedHeaders(KeysetPagination.NEXT_CURSOR_HEADER, HttpHeaders.ETAG, RequestIdFilter.REQUEST_ID_HEADER) // lets the frontend read the pagination cursor, ETags and request IDs
                         .allowCredentials(true); // allows credentials
             }
         };
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReplicaRoutingInterceptor()); // decides per endpoint whether reads may come from the replica
+    }
 }
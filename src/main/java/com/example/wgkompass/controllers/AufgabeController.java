@@ -1,19 +1,29 @@
 package com.example.wgkompass.controllers;
 
+import com.example.wgkompass.config.ReadFromPrimary;
+import com.example.wgkompass.dto.AssignmentResultDto;
 import com.example.wgkompass.dto.AufgabeDto;
 import com.example.wgkompass.exception.InvalidRequestException;
 import com.example.wgkompass.models.Mitglied;
 import com.example.wgkompass.models.WG;
+import com.example.wgkompass.services.AssignmentScope;
 import com.example.wgkompass.services.MitgliedService;
 import com.example.wgkompass.services.WGService;
-import com.example.wgkompass.utils.ValidationUtils;
+import com.example.wgkompass.utils.DtoMapper;
+import com.example.wgkompass.utils.ETags;
+import com.example.wgkompass.utils.KeysetPagination;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.wgkompass.services.AufgabeService;
 import com.example.wgkompass.models.Aufgabe;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,27 +47,46 @@ public class AufgabeController {
     /**
      * Retrieves all Aufgabe (task) entries and returns them as a list of AufgabeDto.
      *
+     * If a limit is given, only one page of entries ordered by ID is returned, and the cursor of the
+     * next page is returned in the X-Next-Cursor header.
+     *
+     * @param after Optional cursor; only entries with a greater ID are returned.
+     * @param limit Optional page size; without it all entries are returned.
      * @return ResponseEntity containing a list of AufgabeDto.
      */
     @GetMapping("/all")
-    public ResponseEntity<List<AufgabeDto>> getAll() {
-        List<Aufgabe> aufgaben = (List<Aufgabe>) aufgabeService.getAll();
-        List<AufgabeDto> aufgabeDtos = aufgaben.stream().map(this::convertToAufgabeDto).toList();
+    public ResponseEntity<List<AufgabeDto>> getAll(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        if (limit != null) {
+            int pageSize = KeysetPagination.pageSize(limit);
+            List<AufgabeDto> page = aufgabeService.getDtoPage(KeysetPagination.cursor(after), pageSize + 1);
+            return KeysetPagination.toResponse(page, pageSize, AufgabeDto::getId);
+        }
+        List<AufgabeDto> aufgabeDtos = aufgabeService.getAllDtos();
         return ResponseEntity.ok(aufgabeDtos);
     }
 
     /**
      * Retrieves an Aufgabe (task) entry by its ID and returns it as AufgabeDto.
+     * The version of the entry is sent as ETag, and a matching If-None-Match header is answered with 304 Not Modified.
+     * It reads from the primary database, because clients fetch an entry right after changing it.
      *
      * @param id The ID of the WG.
-     * @return ResponseEntity containing AufgabeDto if found, or a not found response.
+     * @param request The web request, used to evaluate the If-None-Match header.
+     * @return ResponseEntity containing AufgabeDto if found, or a not modified or not found response.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<AufgabeDto> getById(@PathVariable Long id) {
-        Optional<Aufgabe> aufgabe = aufgabeService.getById(id);
-        if (aufgabe.isPresent()) {
-            AufgabeDto aufgabeDto = convertToAufgabeDto(aufgabe.get());
-            return ResponseEntity.ok(aufgabeDto);
+    @ReadFromPrimary
+    public ResponseEntity<AufgabeDto> getById(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = aufgabeService.getVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(ETags.weak(version.get()))) {
+            return null;
+        }
+        Optional<AufgabeDto> aufgabeDto = aufgabeService.getDtoById(id);
+        if (aufgabeDto.isPresent()) {
+            return ResponseEntity.ok(aufgabeDto.get());
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -66,13 +95,27 @@ public class AufgabeController {
     /**
      * Retrieves a list of Aufgabe (tasks) entry by wg id  and returns it as AufgabeDto list.
      *
+     * If a limit is given, only one page ordered by ID is returned, with the next cursor in the X-Next-Cursor header.
+     * Otherwise the full list is returned with an ETag that changes whenever an entry of the WG changes,
+     * and a matching If-None-Match header is answered with 304 Not Modified.
+     *
      * @param wgId The ID of the WG.
+     * @param after Optional cursor; only entries with a greater ID are returned.
+     * @param limit Optional page size; without it all entries are returned.
+     * @param request the web request, used to evaluate the If-None-Match header
      * @return ResponseEntity containing List of AufgabeDto.
      */
     @GetMapping("/wg/{wgId}")
-    public ResponseEntity<List<AufgabeDto>> getAufgabenByWGId(@PathVariable Long wgId) {
-        List<Aufgabe> aufgaben = (List<Aufgabe>) aufgabeService.getAllByWgId(wgId);
-        List<AufgabeDto> aufgabeDtos = aufgaben.stream().map(this::convertToAufgabeDto).toList();
+    public ResponseEntity<List<AufgabeDto>> getAufgabenByWGId(@PathVariable Long wgId, @RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit, WebRequest request) {
+        if (limit != null) {
+            int pageSize = KeysetPagination.pageSize(limit);
+            List<AufgabeDto> page = aufgabeService.getDtoPageByWgId(wgId, KeysetPagination.cursor(after), pageSize + 1);
+            return KeysetPagination.toResponse(page, pageSize, AufgabeDto::getId);
+        }
+        if (request.checkNotModified(ETags.weak(aufgabeService.getListVersionByWgId(wgId)))) {
+            return null;
+        }
+        List<AufgabeDto> aufgabeDtos = aufgabeService.getDtosByWgId(wgId);
         return ResponseEntity.ok(aufgabeDtos);
     }
 
@@ -83,63 +126,106 @@ public class AufgabeController {
      * @return ResponseEntity containing the created AufgabeDto.
      */
     @PostMapping("/create")
-    public ResponseEntity<AufgabeDto> create(@RequestBody AufgabeDto aufgabeDto) {
-        if (ValidationUtils.containsIllegalCharacters(aufgabeDto.getTitel())) {
-            throw new InvalidRequestException("Illegal characters in name");
-        }
+    public ResponseEntity<AufgabeDto> create(@Valid @RequestBody AufgabeDto aufgabeDto) {
         Aufgabe aufgabe = convertToAufgabe(aufgabeDto);
         Aufgabe savedAufgabe = aufgabeService.save(aufgabe);
-        AufgabeDto savedAufgabeDto = convertToAufgabeDto(savedAufgabe);
+        AufgabeDto savedAufgabeDto = DtoMapper.toAufgabeDto(savedAufgabe);
         return ResponseEntity.ok(savedAufgabeDto);
     }
 
     /**
      * Updates an existing Aufgabe (task) entry with the provided ID and AufgabeDto.
+     * The If-Match header has to name the current version, as sent in the ETag, so a concurrent change is not overwritten.
      *
      * @param id The ID of the Aufgabe to update.
      * @param aufgabeDto Data transfer object for Aufgabe.
-     * @return ResponseEntity containing the updated AufgabeDto, or a not found response.
+     * @param ifMatch The ETag of the version the update is based on.
+     * @return ResponseEntity containing the updated AufgabeDto, a not found response, 428 Precondition Required
+     *         without If-Match header, or 412 Precondition Failed if the Aufgabe was changed since.
      */
     @PutMapping("/update/{id}")
-    public ResponseEntity<AufgabeDto> update(@PathVariable Long id, @RequestBody AufgabeDto aufgabeDto) {
+    public ResponseEntity<AufgabeDto> update(@PathVariable Long id, @Valid @RequestBody AufgabeDto aufgabeDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Optional<Aufgabe> existingAufgabe = aufgabeService.getById(id);
         if (existingAufgabe.isPresent()) {
-            if (ValidationUtils.containsIllegalCharacters(aufgabeDto.getTitel())) {
-                throw new InvalidRequestException("Illegal characters in name");
+            if (ifMatch == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+            }
+            if (!ETags.matches(ifMatch, existingAufgabe.get().getVersion())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
             }
             Aufgabe updatedAufgabe = convertToAufgabe(aufgabeDto);
             updatedAufgabe.setId(id); // make sure the right aufgabe is updated
+            updatedAufgabe.setVersion(existingAufgabe.get().getVersion()); // the version the client sent, so a change in between is detected on save
             Aufgabe savedAufgabe = aufgabeService.save(updatedAufgabe);
-            AufgabeDto savedAufgabeDto = convertToAufgabeDto(savedAufgabe);
+            AufgabeDto savedAufgabeDto = DtoMapper.toAufgabeDto(savedAufgabe);
             return ResponseEntity.ok(savedAufgabeDto);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Utility method descriptions
+    /**
+     * Changes the fields of an existing Aufgabe (task) entry that are set in the provided AufgabeDto.
+     * Fields that are null are left unchanged. The entry is changed with a single UPDATE statement
+     * without being read first, so the response has no body.
+     *
+     * @param id The ID of the Aufgabe to change.
+     * @param aufgabeDto Data transfer object holding the fields to change.
+     * @return ResponseEntity with no content, or a not found response.
+     */
+    @PatchMapping("/update/{id}")
+    public ResponseEntity<Void> patch(@PathVariable Long id, @Valid @RequestBody AufgabeDto aufgabeDto) {
+        if (aufgabeService.patch(id, aufgabeDto)) {
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
 
     /**
-     * Converts an Aufgabe (task) entity to an AufgabeDto.
+     * Creates or updates many Aufgabe (task) entries from the provided AufgabeDto list in one transaction.
+     * Entries without an ID are created, and entries with an ID update the existing entry.
+     * Updated entries have to carry the version they are based on; if an entry was changed since, nothing is saved
+     * and the request is answered with 409 Conflict.
      *
-     * @param aufgabe Aufgabe entity.
-     * @return AufgabeDto corresponding to the Aufgabe entity.
+     * @param aufgabeDtos Data transfer objects for Aufgabe.
+     * @return ResponseEntity containing the saved AufgabeDto list in the order of the request.
      */
-    private AufgabeDto convertToAufgabeDto(Aufgabe aufgabe) {
-        Long verantwortlichesMitgliedId = null;
-        if (aufgabe.getVerantwortlichesMitglied() != null) {
-            verantwortlichesMitgliedId = aufgabe.getVerantwortlichesMitglied().getId();
+    @PostMapping("/bulk")
+    public ResponseEntity<List<AufgabeDto>> bulk(@Valid @RequestBody List<AufgabeDto> aufgabeDtos) {
+        List<Aufgabe> aufgaben = new ArrayList<>();
+        for (AufgabeDto aufgabeDto : aufgabeDtos) {
+            Aufgabe aufgabe = convertToAufgabe(aufgabeDto);
+            if (aufgabeDto.getId() != null) {
+                if (aufgabeDto.getVersion() == null) {
+                    throw new InvalidRequestException("The version of Aufgabe " + aufgabeDto.getId() + " is required");
+                }
+                aufgabe.setVersion(aufgabeDto.getVersion());
+            }
+            aufgaben.add(aufgabe);
         }
+        List<AufgabeDto> savedAufgabeDtos = aufgabeService.saveAll(aufgaben).stream().map(DtoMapper::toAufgabeDto).toList();
+        return ResponseEntity.ok(savedAufgabeDtos);
+    }
 
-        return new AufgabeDto(
-                aufgabe.getId(),
-                aufgabe.getTitel(),
-                aufgabe.getBeschreibung(),
-                aufgabe.getWg().getId(),
-                verantwortlichesMitgliedId
-        );
+    /**
+     * Spreads the tasks of a WG evenly across its members, so the chores can be rotated with one request.
+     * Every task goes to the member with the fewest tasks at that point, and all changes are saved in one transaction.
+     *
+     * @param wgId The ID of the WG.
+     * @param scope Either "unassigned" to only assign tasks without a member of the WG, or "all" to assign all tasks anew.
+     * @return ResponseEntity containing the AssignmentResultDto, or a not found response if the WG does not exist.
+     */
+    @PostMapping("/wg/{wgId}/assign")
+    public ResponseEntity<AssignmentResultDto> assign(@PathVariable Long wgId, @RequestParam(defaultValue = "unassigned") String scope) {
+        AssignmentScope assignmentScope = AssignmentScope.fromParameter(scope);
+        Optional<AssignmentResultDto> result = aufgabeService.assign(wgId, assignmentScope);
+        return result.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // Utility method descriptions
+
     /**
      * Converts an AufgabeDto to an Aufgabe (task) entity.
      *
@@ -0,0 +1,31 @@
+package com.example.wgkompass.controllers;
+
+import com.example.wgkompass.dto.CacheStatisticsDto;
+import com.example.wgkompass.services.CacheStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The CacheController class handles HTTP requests related to the second-level cache.
+ * It exposes the cache statistics collected by the CacheStatisticsService.
+ */
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    /**
+     * Retrieves the hit and miss statistics of the second-level cache.
+     *
+     * @return ResponseEntity containing the CacheStatisticsDto.
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<CacheStatisticsDto> getStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getStatistics());
+    }
+}
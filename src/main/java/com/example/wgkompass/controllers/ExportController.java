@@ -0,0 +1,47 @@
+package com.example.wgkompass.controllers;
+
+import com.example.wgkompass.services.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * The ExportController class handles HTTP requests for exporting all entities of a type.
+ * The entities are streamed as newline-delimited JSON (NDJSON), one DTO per line, using the ExportService.
+ */
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * Streams all entities of the given type as NDJSON.
+     * Supported types are "wg", "mitglied", "inventar" and "aufgabe".
+     *
+     * @param entity The type of the entities to export.
+     * @return ResponseEntity streaming the entities, or a not found response for an unknown type.
+     */
+    @GetMapping("/{entity}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String entity) {
+        StreamingResponseBody body = switch (entity) {
+            case "wg" -> exportService::exportWGs;
+            case "mitglied" -> exportService::exportMitglieder;
+            case "inventar" -> exportService::exportInventar;
+            case "aufgabe" -> exportService::exportAufgaben;
+            default -> null;
+        };
+        if (body == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
@@ -1,17 +1,30 @@
 package com.example.wgkompass.controllers;
 
+import com.example.wgkompass.config.ReadFromPrimary;
+import com.example.wgkompass.dto.DissolveResultDto;
 import com.example.wgkompass.dto.InventarDto;
+import com.example.wgkompass.dto.ValuationRequestDto;
 import com.example.wgkompass.exception.InvalidRequestException;
 import com.example.wgkompass.models.WG;
+import com.example.wgkompass.services.DepreciationMethod;
+import com.example.wgkompass.services.ValuationService;
 import com.example.wgkompass.services.WGService;
-import com.example.wgkompass.utils.ValidationUtils;
+import com.example.wgkompass.utils.DtoMapper;
+import com.example.wgkompass.utils.ETags;
+import com.example.wgkompass.utils.KeysetPagination;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.wgkompass.services.InventarService;
 import com.example.wgkompass.models.Inventar;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,30 +42,52 @@ public class InventarController {
     @Autowired
     private WGService wgService;
 
+    @Autowired
+    private ValuationService valuationService;
+
     /**
      * Retrieves all Inventar (inventory) entries and returns them as a list of InventarDto.
      *
+     * If a limit is given, only one page of entries ordered by ID is returned, and the cursor of the
+     * next page is returned in the X-Next-Cursor header.
+     *
+     * @param after Optional cursor; only entries with a greater ID are returned.
+     * @param limit Optional page size; without it all entries are returned.
      * @return ResponseEntity containing a list of InventarDto.
      */
     @GetMapping("/all")
-    public ResponseEntity<List<InventarDto>> getAll() {
-        List<Inventar> inventar = (List<Inventar>) inventarService.getAll();
-        List<InventarDto> inventarDtos = inventar.stream().map(this::convertToInventarDto).toList();
+    public ResponseEntity<List<InventarDto>> getAll(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        if (limit != null) {
+            int pageSize = KeysetPagination.pageSize(limit);
+            List<InventarDto> page = inventarService.getDtoPage(KeysetPagination.cursor(after), pageSize + 1);
+            return KeysetPagination.toResponse(page, pageSize, InventarDto::getId);
+        }
+        List<InventarDto> inventarDtos = inventarService.getAllDtos();
         return ResponseEntity.ok(inventarDtos);
     }
 
     /**
      * Retrieves an Inventar (inventory) entry by its ID and returns it as InventarDto.
+     * The version of the entry is sent as ETag, and a matching If-None-Match header is answered with 304 Not Modified.
+     * It reads from the primary database, because clients fetch an entry right after changing it.
      *
      * @param id The ID of the Inventar.
-     * @return ResponseEntity containing InventarDto if found, or a not found response.
+     * @param request The web request, used to evaluate the If-None-Match header.
+     * @return ResponseEntity containing InventarDto if found, or a not modified or not found response.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<InventarDto> getById(@PathVariable Long id) {
-        Optional<Inventar> inventar = inventarService.getById(id);
-        if (inventar.isPresent()) {
-            InventarDto inventarDto = convertToInventarDto(inventar.get());
-            return ResponseEntity.ok(inventarDto);
+    @ReadFromPrimary
+    public ResponseEntity<InventarDto> getById(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = inventarService.getVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(ETags.weak(version.get()))) {
+            return null;
+        }
+        Optional<InventarDto> inventarDto = inventarService.getDtoById(id);
+        if (inventarDto.isPresent()) {
+            return ResponseEntity.ok(inventarDto.get());
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -60,13 +95,26 @@ public class InventarController {
 
     /**
      * Retrieves all Inventar entries by WG ID.
+     * If a limit is given, only one page ordered by ID is returned, with the next cursor in the X-Next-Cursor header.
+     * Otherwise the full list is returned with an ETag that changes whenever an entry of the WG changes,
+     * and a matching If-None-Match header is answered with 304 Not Modified.
      * @param wgId the ID of the WG
+     * @param after optional cursor; only entries with a greater ID are returned
+     * @param limit optional page size; without it all entries are returned
+     * @param request the web request, used to evaluate the If-None-Match header
      * @return ResponseEntity containing a list of InventarDto objects
      */
     @GetMapping("/wg/{wgId}")
-    public ResponseEntity<List<InventarDto>> getInventarByWGId(@PathVariable Long wgId) {
-        List<Inventar> inventarListe = inventarService.getAllByWgId(wgId);
-        List<InventarDto> inventarDtos = inventarListe.stream().map(this::convertToInventarDto).toList();
+    public ResponseEntity<List<InventarDto>> getInventarByWGId(@PathVariable Long wgId, @RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit, WebRequest request) {
+        if (limit != null) {
+            int pageSize = KeysetPagination.pageSize(limit);
+            List<InventarDto> page = inventarService.getDtoPageByWgId(wgId, KeysetPagination.cursor(after), pageSize + 1);
+            return KeysetPagination.toResponse(page, pageSize, InventarDto::getId);
+        }
+        if (request.checkNotModified(ETags.weak(inventarService.getListVersionByWgId(wgId)))) {
+            return null;
+        }
+        List<InventarDto> inventarDtos = inventarService.getDtosByWgId(wgId);
         return ResponseEntity.ok(inventarDtos);
     }
 
@@ -77,34 +125,39 @@ public class InventarController {
      * @return ResponseEntity containing the created InventarDto.
      */
     @PostMapping("/create")
-    public ResponseEntity<InventarDto> create(@RequestBody InventarDto inventarDto) {
-        if (ValidationUtils.containsIllegalCharacters(inventarDto.getName())) {
-            throw new InvalidRequestException("Illegal characters in name");
-        }
+    public ResponseEntity<InventarDto> create(@Valid @RequestBody InventarDto inventarDto) {
         Inventar inventar = convertToInventar(inventarDto);
         Inventar savedInventar = inventarService.save(inventar);
-        InventarDto savedInventarDto = convertToInventarDto(savedInventar);
+        InventarDto savedInventarDto = DtoMapper.toInventarDto(savedInventar);
         return ResponseEntity.ok(savedInventarDto);
     }
 
     /**
      * Updates an existing Inventar (inventory) entry with the provided ID and InventarDto.
+     * The If-Match header has to name the current version, as sent in the ETag, so a concurrent change is not overwritten.
      *
      * @param id The ID of the Inventar to update.
      * @param inventarDto Data transfer object for Inventar.
-     * @return ResponseEntity containing the updated InventarDto, or a not found response.
+     * @param ifMatch The ETag of the version the update is based on.
+     * @return ResponseEntity containing the updated InventarDto, a not found response, 428 Precondition Required
+     *         without If-Match header, or 412 Precondition Failed if the Inventar was changed since.
      */
     @PutMapping("/update/{id}")
-    public ResponseEntity<InventarDto> update(@PathVariable Long id, @RequestBody InventarDto inventarDto) {
+    public ResponseEntity<InventarDto> update(@PathVariable Long id, @Valid @RequestBody InventarDto inventarDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Optional<Inventar> existingInventar = inventarService.getById(id);
         if (existingInventar.isPresent()) {
-            if (ValidationUtils.containsIllegalCharacters(inventarDto.getName())) {
-                throw new InvalidRequestException("Illegal characters in name");
+            if (ifMatch == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+            }
+            if (!ETags.matches(ifMatch, existingInventar.get().getVersion())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
             }
             Inventar updatedInventar = convertToInventar(inventarDto);
             updatedInventar.setId(id); // make sure the right inventar is updated
+            updatedInventar.setVersion(existingInventar.get().getVersion()); // the version the client sent, so a change in between is detected on save
             Inventar savedInventar = inventarService.save(updatedInventar);
-            InventarDto savedInventarDto = convertToInventarDto(savedInventar);
+            InventarDto savedInventarDto = DtoMapper.toInventarDto(savedInventar);
             return ResponseEntity.ok(savedInventarDto);
         } else {
             return ResponseEntity.notFound().build();
@@ -112,19 +165,70 @@ public class InventarController {
     }
 
     /**
-     * Converts an Inventar entity to an InventarDto object.
-     * @param inventar The Inventar entity to be converted.
-     * @return An InventarDto object containing the data from the Inventar entity.
+     * Changes the fields of an existing Inventar (inventory) entry that are set in the provided InventarDto.
+     * Fields that are null are left unchanged. The entry is changed with a single UPDATE statement
+     * without being read first, so the response has no body.
+     *
+     * @param id The ID of the Inventar to change.
+     * @param inventarDto Data transfer object holding the fields to change.
+     * @return ResponseEntity with no content, or a not found response.
+     */
+    @PatchMapping("/update/{id}")
+    public ResponseEntity<Void> patch(@PathVariable Long id, @Valid @RequestBody InventarDto inventarDto) {
+        if (inventarService.patch(id, inventarDto)) {
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Creates or updates many Inventar (inventory) entries from the provided InventarDto list in one transaction.
+     * Entries without an ID are created, and entries with an ID update the existing entry.
+     * Updated entries have to carry the version they are based on; if an entry was changed since, nothing is saved
+     * and the request is answered with 409 Conflict.
+     *
+     * @param inventarDtos Data transfer objects for Inventar.
+     * @return ResponseEntity containing the saved InventarDto list in the order of the request.
      */
-    private InventarDto convertToInventarDto(Inventar inventar) {
-        return new InventarDto(
-                inventar.getId(),
-                inventar.getName(),
-                inventar.getPreis(),
-                inventar.getKaufdatum(),
-                inventar.getAbschreibungssatz(),
-                inventar.getWg().getId()
-        );
+    @PostMapping("/bulk")
+    public ResponseEntity<List<InventarDto>> bulk(@Valid @RequestBody List<InventarDto> inventarDtos) {
+        List<Inventar> inventare = new ArrayList<>();
+        for (InventarDto inventarDto : inventarDtos) {
+            Inventar inventar = convertToInventar(inventarDto);
+            if (inventarDto.getId() != null) {
+                if (inventarDto.getVersion() == null) {
+                    throw new InvalidRequestException("The version of Inventar " + inventarDto.getId() + " is required");
+                }
+                inventar.setVersion(inventarDto.getVersion());
+            }
+            inventare.add(inventar);
+        }
+        List<InventarDto> savedInventarDtos = inventarService.saveAll(inventare).stream().map(DtoMapper::toInventarDto).toList();
+        return ResponseEntity.ok(savedInventarDtos);
+    }
+
+    /**
+     * Calculates the current value of many Inventar (inventory) entries in one call, either of a whole WG
+     * or of the listed inventory items. All items are valued at the same date with the same depreciation method.
+     *
+     * @param valuationRequestDto Data transfer object describing the items, the valuation date and the method.
+     * @return ResponseEntity containing the original and current value of every inventory item found.
+     */
+    @PostMapping("/valuation")
+    public ResponseEntity<List<DissolveResultDto.InventoryValue>> valuation(@RequestBody ValuationRequestDto valuationRequestDto) {
+        List<Inventar> inventare;
+        if (valuationRequestDto.getWgId() != null) {
+            inventare = inventarService.getAllByWgId(valuationRequestDto.getWgId());
+        } else if (valuationRequestDto.getInventarIds() != null) {
+            inventare = inventarService.getAllById(valuationRequestDto.getInventarIds());
+        } else {
+            throw new InvalidRequestException("Either wgId or inventarIds is required");
+        }
+
+        LocalDate valuationDate = valuationRequestDto.getValuationDate() != null ? valuationRequestDto.getValuationDate() : LocalDate.now();
+        DepreciationMethod method = valuationRequestDto.getMethod() != null ? valuationRequestDto.getMethod() : DepreciationMethod.DECLINING_BALANCE;
+        return ResponseEntity.ok(valuationService.valueAll(inventare, valuationDate, method));
     }
 
     /**
@@ -1,17 +1,25 @@
 package com.example.wgkompass.controllers;
 
+import com.example.wgkompass.config.ReadFromPrimary;
 import com.example.wgkompass.dto.MitgliedDto;
 import com.example.wgkompass.exception.InvalidRequestException;
 import com.example.wgkompass.models.WG;
 import com.example.wgkompass.services.WGService;
-import com.example.wgkompass.utils.ValidationUtils;
+import com.example.wgkompass.utils.DtoMapper;
+import com.example.wgkompass.utils.ETags;
+import com.example.wgkompass.utils.KeysetPagination;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.wgkompass.services.MitgliedService;
 import com.example.wgkompass.models.Mitglied;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,27 +40,46 @@ public class MitgliedController {
     /**
      * Retrieves all Mitglied (member) entries and returns them as a list of MitgliedDto.
      *
+     * If a limit is given, only one page of entries ordered by ID is returned, and the cursor of the
+     * next page is returned in the X-Next-Cursor header.
+     *
+     * @param after Optional cursor; only entries with a greater ID are returned.
+     * @param limit Optional page size; without it all entries are returned.
      * @return ResponseEntity containing a list of MitgliedDto.
      */
     @GetMapping("/all")
-    public ResponseEntity<List<MitgliedDto>> getAll() {
-        List<Mitglied> mitglieder = (List<Mitglied>) mitgliedService.getAll();
-        List<MitgliedDto> mitgliedDtos = mitglieder.stream().map(this::convertToMitgliedDto).toList();
+    public ResponseEntity<List<MitgliedDto>> getAll(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        if (limit != null) {
+            int pageSize = KeysetPagination.pageSize(limit);
+            List<MitgliedDto> page = mitgliedService.getDtoPage(KeysetPagination.cursor(after), pageSize + 1);
+            return KeysetPagination.toResponse(page, pageSize, MitgliedDto::getId);
+        }
+        List<MitgliedDto> mitgliedDtos = mitgliedService.getAllDtos();
         return ResponseEntity.ok(mitgliedDtos);
     }
 
     /**
      * Retrieves a Mitglied (member) entry by its ID and returns it as MitgliedDto.
+     * The version of the entry is sent as ETag, and a matching If-None-Match header is answered with 304 Not Modified.
+     * It reads from the primary database, because clients fetch an entry right after changing it.
      *
      * @param id The ID of the Mitglied.
-     * @return ResponseEntity containing MitgliedDto if found, or a not found response.
+     * @param request The web request, used to evaluate the If-None-Match header.
+     * @return ResponseEntity containing MitgliedDto if found, or a not modified or not found response.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<MitgliedDto> getById(@PathVariable Long id) {
-        Optional<Mitglied> mitglied = mitgliedService.getById(id);
-        if (mitglied.isPresent()) {
-            MitgliedDto mitgliedDto = convertToMitgliedDto(mitglied.get());
-            return ResponseEntity.ok(mitgliedDto);
+    @ReadFromPrimary
+    public ResponseEntity<MitgliedDto> getById(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = mitgliedService.getVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(ETags.weak(version.get()))) {
+            return null;
+        }
+        Optional<MitgliedDto> mitgliedDto = mitgliedService.getDtoById(id);
+        if (mitgliedDto.isPresent()) {
+            return ResponseEntity.ok(mitgliedDto.get());
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -61,13 +88,27 @@ public class MitgliedController {
     /**
      * Retrieves all Mitglied (member) entities by WG ID.
      *
+     * If a limit is given, only one page ordered by ID is returned, with the next cursor in the X-Next-Cursor header.
+     * Otherwise the full list is returned with an ETag that changes whenever an entry of the WG changes,
+     * and a matching If-None-Match header is answered with 304 Not Modified.
+     *
      * @param wgId the ID of the WG
+     * @param after optional cursor; only entries with a greater ID are returned
+     * @param limit optional page size; without it all entries are returned
+     * @param request the web request, used to evaluate the If-None-Match header
      * @return ResponseEntity containing a list of MitgliedDto objects
      */
     @GetMapping("/wg/{wgId}")
-    public ResponseEntity<List<MitgliedDto>> getMitgliederByWGId(@PathVariable Long wgId) {
-        List<Mitglied> mitglieder = mitgliedService.getAllByWgId(wgId);
-        List<MitgliedDto> mitgliedDtos = mitglieder.stream().map(this::convertToMitgliedDto).toList();
+    public ResponseEntity<List<MitgliedDto>> getMitgliederByWGId(@PathVariable Long wgId, @RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit, WebRequest request) {
+        if (limit != null) {
+            int pageSize = KeysetPagination.pageSize(limit);
+            List<MitgliedDto> page = mitgliedService.getDtoPageByWgId(wgId, KeysetPagination.cursor(after), pageSize + 1);
+            return KeysetPagination.toResponse(page, pageSize, MitgliedDto::getId);
+        }
+        if (request.checkNotModified(ETags.weak(mitgliedService.getListVersionByWgId(wgId)))) {
+            return null;
+        }
+        List<MitgliedDto> mitgliedDtos = mitgliedService.getDtosByWgId(wgId);
         return ResponseEntity.ok(mitgliedDtos);
     }
 
@@ -79,56 +120,91 @@ public class MitgliedController {
      * @return ResponseEntity containing the created MitgliedDto.
      */
     @PostMapping("/create")
-    public ResponseEntity<MitgliedDto> create(@RequestBody MitgliedDto mitgliedDto) {
-        if (ValidationUtils.containsIllegalCharacters(mitgliedDto.getVorname()) || ValidationUtils.containsIllegalCharacters(mitgliedDto.getNachname())) {
-            throw new InvalidRequestException("Illegal characters in name");
-        }
+    public ResponseEntity<MitgliedDto> create(@Valid @RequestBody MitgliedDto mitgliedDto) {
         Mitglied mitglied = convertToMitglied(mitgliedDto);
         Mitglied savedMitglied = mitgliedService.save(mitglied);
-        MitgliedDto savedMitgliedDto = convertToMitgliedDto(savedMitglied);
+        MitgliedDto savedMitgliedDto = DtoMapper.toMitgliedDto(savedMitglied);
         return ResponseEntity.ok(savedMitgliedDto);
     }
 
     /**
      * Updates an existing Mitglied (member) entry with the provided ID and MitgliedDto.
+     * The If-Match header has to name the current version, as sent in the ETag, so a concurrent change is not overwritten.
      *
      * @param id The ID of the Mitglied to update.
      * @param mitgliedDto Data transfer object for Mitglied.
-     * @return ResponseEntity containing the updated MitgliedDto, or a not found response.
+     * @param ifMatch The ETag of the version the update is based on.
+     * @return ResponseEntity containing the updated MitgliedDto, a not found response, 428 Precondition Required
+     *         without If-Match header, or 412 Precondition Failed if the Mitglied was changed since.
      */
     @PutMapping("/update/{id}")
-    public ResponseEntity<MitgliedDto> update(@PathVariable Long id, @RequestBody MitgliedDto mitgliedDto) {
+    public ResponseEntity<MitgliedDto> update(@PathVariable Long id, @Valid @RequestBody MitgliedDto mitgliedDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Optional<Mitglied> existingMitglied = mitgliedService.getById(id);
         if (existingMitglied.isPresent()) {
-            if (ValidationUtils.containsIllegalCharacters(mitgliedDto.getVorname()) || ValidationUtils.containsIllegalCharacters(mitgliedDto.getNachname())) {
-                throw new InvalidRequestException("Illegal characters in name");
+            if (ifMatch == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+            }
+            if (!ETags.matches(ifMatch, existingMitglied.get().getVersion())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
             }
             Mitglied updatedMitglied = convertToMitglied(mitgliedDto);
             updatedMitglied.setId(id); // make sure the correct id is used
+            updatedMitglied.setVersion(existingMitglied.get().getVersion()); // the version the client sent, so a change in between is detected on save
             Mitglied savedMitglied = mitgliedService.save(updatedMitglied);
-            MitgliedDto savedMitgliedDto = convertToMitgliedDto(savedMitglied);
+            MitgliedDto savedMitgliedDto = DtoMapper.toMitgliedDto(savedMitglied);
             return ResponseEntity.ok(savedMitgliedDto);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Utility method descriptions
+    /**
+     * Changes the fields of an existing Mitglied (member) entry that are set in the provided MitgliedDto.
+     * Fields that are null are left unchanged. The entry is changed with a single UPDATE statement
+     * without being read first, so the response has no body.
+     *
+     * @param id The ID of the Mitglied to change.
+     * @param mitgliedDto Data transfer object holding the fields to change.
+     * @return ResponseEntity with no content, or a not found response.
+     */
+    @PatchMapping("/update/{id}")
+    public ResponseEntity<Void> patch(@PathVariable Long id, @Valid @RequestBody MitgliedDto mitgliedDto) {
+        if (mitgliedService.patch(id, mitgliedDto)) {
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
 
     /**
-     * Converts a Mitglied (member) entity to a MitgliedDto.
+     * Creates or updates many Mitglied (member) entries from the provided MitgliedDto list in one transaction.
+     * Entries without an ID are created, and entries with an ID update the existing entry.
+     * Updated entries have to carry the version they are based on; if an entry was changed since, nothing is saved
+     * and the request is answered with 409 Conflict.
      *
-     * @param mitglied Mitglied entity.
-     * @return MitgliedDto corresponding to the Mitglied entity.
+     * @param mitgliedDtos Data transfer objects for Mitglied.
+     * @return ResponseEntity containing the saved MitgliedDto list in the order of the request.
      */
-    private MitgliedDto convertToMitgliedDto(Mitglied mitglied) {
-        return new MitgliedDto(
-                mitglied.getId(),
-                mitglied.getVorname(),
-                mitglied.getNachname(),
-                mitglied.getWg().getId());
+    @PostMapping("/bulk")
+    public ResponseEntity<List<MitgliedDto>> bulk(@Valid @RequestBody List<MitgliedDto> mitgliedDtos) {
+        List<Mitglied> mitglieder = new ArrayList<>();
+        for (MitgliedDto mitgliedDto : mitgliedDtos) {
+            Mitglied mitglied = convertToMitglied(mitgliedDto);
+            if (mitgliedDto.getId() != null) {
+                if (mitgliedDto.getVersion() == null) {
+                    throw new InvalidRequestException("The version of Mitglied " + mitgliedDto.getId() + " is required");
+                }
+                mitglied.setVersion(mitgliedDto.getVersion());
+            }
+            mitglieder.add(mitglied);
+        }
+        List<MitgliedDto> savedMitgliedDtos = mitgliedService.saveAll(mitglieder).stream().map(DtoMapper::toMitgliedDto).toList();
+        return ResponseEntity.ok(savedMitgliedDtos);
     }
 
+    // Utility method descriptions
+
     /**
      * Converts a MitgliedDto to a Mitglied (member) entity.
      *
@@ -1,15 +1,26 @@
 package com.example.wgkompass.controllers;
 
+import com.example.wgkompass.config.ReadFromPrimary;
 import com.example.wgkompass.dto.WGDto;
 import com.example.wgkompass.exception.InvalidRequestException;
-import com.example.wgkompass.utils.ValidationUtils;
+import com.example.wgkompass.dto.WGOverviewDto;
+import com.example.wgkompass.dto.WGStatistikDto;
+import com.example.wgkompass.utils.DtoMapper;
+import com.example.wgkompass.utils.ETags;
+import com.example.wgkompass.utils.KeysetPagination;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.wgkompass.services.WGService;
+import com.example.wgkompass.services.WGStatistikService;
 import com.example.wgkompass.models.WG;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -25,35 +36,84 @@ public class WGController {
     @Autowired
     private WGService wgService;
 
+    @Autowired
+    private WGStatistikService wgStatistikService;
+
     /**
      * Retrieves all WGs and returns them as a list of WGDto.
      *
+     * If a limit is given, only one page of entries ordered by ID is returned, and the cursor of the
+     * next page is returned in the X-Next-Cursor header.
+     *
+     * @param after Optional cursor; only entries with a greater ID are returned.
+     * @param limit Optional page size; without it all entries are returned.
      * @return ResponseEntity containing a list of WGDto.
      */
     @GetMapping("/all")
-    public ResponseEntity<List<WGDto>> getAll() {
+    public ResponseEntity<List<WGDto>> getAll(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        if (limit != null) {
+            int pageSize = KeysetPagination.pageSize(limit);
+            List<WGDto> page = wgService.getPage(KeysetPagination.cursor(after), pageSize + 1).stream().map(DtoMapper::toWGDto).toList();
+            return KeysetPagination.toResponse(page, pageSize, WGDto::getId);
+        }
         List<WG> wgs = (List<WG>) wgService.getAll();
-        List<WGDto> wgDtos = wgs.stream().map(this::convertToWGDto).collect(Collectors.toList());
+        List<WGDto> wgDtos = wgs.stream().map(DtoMapper::toWGDto).collect(Collectors.toList());
         return ResponseEntity.ok(wgDtos);
     }
 
     /**
      * Retrieves a WG by its ID and returns it as WGDto.
+     * The version of the WG is sent as ETag, and a matching If-None-Match header is answered with 304 Not Modified.
+     * The WG itself usually comes from the second-level cache, so its version is read from the entity.
+     * It reads from the primary database, because clients fetch an entry right after changing it.
      *
      * @param id The ID of the WG.
-     * @return ResponseEntity containing WGDto if found, or a not found response.
+     * @param request The web request, used to evaluate the If-None-Match header.
+     * @return ResponseEntity containing WGDto if found, or a not modified or not found response.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<WGDto> getById(@PathVariable Long id) {
+    @ReadFromPrimary
+    public ResponseEntity<WGDto> getById(@PathVariable Long id, WebRequest request) {
         Optional<WG> wg = wgService.getById(id);
         if (wg.isPresent()) {
-            WGDto wgDto = convertToWGDto(wg.get());
+            if (request.checkNotModified(ETags.weak(wg.get().getVersion()))) {
+                return null;
+            }
+            WGDto wgDto = DtoMapper.toWGDto(wg.get());
             return ResponseEntity.ok(wgDto);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Retrieves the overview of a WG with its members, inventory items and tasks in one response.
+     *
+     * @param id The ID of the WG.
+     * @return ResponseEntity containing WGOverviewDto if found, or a not found response.
+     */
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<WGOverviewDto> getOverview(@PathVariable Long id) {
+        return wgService.getOverview(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves the aggregate counters of a WG: its number of members, inventory items and open tasks,
+     * and the total purchase price and current value of its inventory. The counters are maintained
+     * on every change, so they are read from a single row instead of the lists.
+     *
+     * @param id The ID of the WG.
+     * @return ResponseEntity containing WGStatistikDto if found, or a not found response.
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<WGStatistikDto> getStatistik(@PathVariable Long id) {
+        return wgStatistikService.getByWgId(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Creates a new WG from the provided WGDto.
      *
@@ -61,52 +121,91 @@ public class WGController {
      * @return ResponseEntity containing the created WGDto.
      */
     @PostMapping("/create")
-    public ResponseEntity<WGDto> create(@RequestBody WGDto wgDto) {
-        if (ValidationUtils.containsIllegalCharacters(wgDto.getName())) {
-            throw new InvalidRequestException("Illegal characters in name");
-        }
+    public ResponseEntity<WGDto> create(@Valid @RequestBody WGDto wgDto) {
         WG wg = convertToWG(wgDto);
         WG savedWG = wgService.save(wg);
-        WGDto savedWGDto = convertToWGDto(savedWG);
+        WGDto savedWGDto = DtoMapper.toWGDto(savedWG);
         return ResponseEntity.ok(savedWGDto);
     }
 
     /**
      * Updates an existing WG with the provided ID and WGDto.
+     * The If-Match header has to name the current version, as sent in the ETag, so a concurrent change is not overwritten.
      *
      * @param id The ID of the WG to update.
      * @param wgDto Data transfer object for WG.
-     * @return ResponseEntity containing the updated WGDto, or a not found response.
+     * @param ifMatch The ETag of the version the update is based on.
+     * @return ResponseEntity containing the updated WGDto, a not found response, 428 Precondition Required
+     *         without If-Match header, or 412 Precondition Failed if the WG was changed since.
      */
     @PutMapping("/update/{id}")
-    public ResponseEntity<WGDto> update(@PathVariable Long id, @RequestBody WGDto wgDto) {
+    public ResponseEntity<WGDto> update(@PathVariable Long id, @Valid @RequestBody WGDto wgDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Optional<WG> existingWG = wgService.getById(id);
         if (existingWG.isPresent()) {
-            if (ValidationUtils.containsIllegalCharacters(wgDto.getName())) {
-                throw new InvalidRequestException("Illegal characters in name");
+            if (ifMatch == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+            }
+            if (!ETags.matches(ifMatch, existingWG.get().getVersion())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
             }
             WG updatedWG = convertToWG(wgDto);
             updatedWG.setId(id); // make sure the right wg is updated
+            updatedWG.setVersion(existingWG.get().getVersion()); // the version the client sent, so a change in between is detected on save
             WG savedWG = wgService.save(updatedWG);
-            WGDto savedWGDto = convertToWGDto(savedWG);
+            WGDto savedWGDto = DtoMapper.toWGDto(savedWG);
             return ResponseEntity.ok(savedWGDto);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Utility method descriptions
+    /**
+     * Changes the fields of an existing WG entry that are set in the provided WGDto.
+     * Fields that are null are left unchanged. The entry is changed with a single UPDATE statement
+     * without being read first, so the response has no body.
+     *
+     * @param id The ID of the WG to change.
+     * @param wgDto Data transfer object holding the fields to change.
+     * @return ResponseEntity with no content, or a not found response.
+     */
+    @PatchMapping("/update/{id}")
+    public ResponseEntity<Void> patch(@PathVariable Long id, @Valid @RequestBody WGDto wgDto) {
+        if (wgService.patch(id, wgDto)) {
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
 
     /**
-     * Converts a WG entity to a WGDto.
+     * Creates or updates many WG entries from the provided WGDto list in one transaction.
+     * Entries without an ID are created, and entries with an ID update the existing entry.
+     * Updated entries have to carry the version they are based on; if an entry was changed since, nothing is saved
+     * and the request is answered with 409 Conflict.
      *
-     * @param wg WG entity.
-     * @return WGDto corresponding to the WG entity.
+     * @param wgDtos Data transfer objects for WG.
+     * @return ResponseEntity containing the saved WGDto list in the order of the request.
      */
-    private WGDto convertToWGDto(WG wg) {
-        return new WGDto(wg.getId(), wg.getName());
+    @PostMapping("/bulk")
+    public ResponseEntity<List<WGDto>> bulk(@Valid @RequestBody List<WGDto> wgDtos) {
+        List<WG> wgs = new ArrayList<>();
+        for (WGDto wgDto : wgDtos) {
+            WG wg = convertToWG(wgDto);
+            if (wgDto.getId() != null) {
+                if (wgDto.getVersion() == null) {
+                    throw new InvalidRequestException("The version of WG " + wgDto.getId() + " is required");
+                }
+                wg.setVersion(wgDto.getVersion());
+            }
+            wgs.add(wg);
+        }
+        List<WGDto> savedWGDtos = wgService.saveAll(wgs).stream().map(DtoMapper::toWGDto).toList();
+        return ResponseEntity.ok(savedWGDtos);
     }
 
+    // Utility method descriptions
+
     /**
      * Converts a WGDto to a WG entity.
      *
@@ -0,0 +1,49 @@
+package com.example.wgkompass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the result of the automatic assignment of the tasks of a WG.
+ * It contains the number of tasks that got a new responsible member and the resulting load of every member.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class AssignmentResultDto {
+    /**
+     * The ID of the WG whose tasks were assigned.
+     */
+    private Long wgId;
+
+    /**
+     * The number of tasks whose responsible member changed.
+     */
+    private int reassigned;
+
+    /**
+     * The number of tasks every member is responsible for after the assignment, ordered by member ID.
+     */
+    private List<MemberLoad> loads;
+
+    /**
+     * Inner class representing the number of tasks a member is responsible for.
+     */
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class MemberLoad {
+        /**
+         * The ID of the member.
+         */
+        private Long mitgliedId;
+
+        /**
+         * The number of tasks the member is responsible for.
+         */
+        private long aufgaben;
+    }
+}
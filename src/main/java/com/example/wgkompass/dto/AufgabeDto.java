@@ -1,5 +1,6 @@
 package com.example.wgkompass.dto;
 
+import com.example.wgkompass.validation.LegalText;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -21,6 +22,7 @@ public class AufgabeDto {
     /**
      * The title of the task.
      */
+    @LegalText
     private String titel;
 
     /**
@@ -36,4 +38,9 @@ public class AufgabeDto {
      * The identifier of the member responsible for this task.
      */
     private Long verantwortlichesMitgliedId;
+
+    /**
+     * The version of the task, which a bulk update has to send back unchanged.
+     */
+    private Long version;
 }
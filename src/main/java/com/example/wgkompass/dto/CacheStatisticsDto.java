@@ -0,0 +1,79 @@
+package com.example.wgkompass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the hit and miss statistics of the Hibernate second-level cache.
+ * It contains the totals of the entity and query caches and the statistics of every cache region.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class CacheStatisticsDto {
+    /**
+     * The number of entities found in the second-level cache.
+     */
+    private long secondLevelCacheHits;
+
+    /**
+     * The number of entities looked up in the second-level cache but not found.
+     */
+    private long secondLevelCacheMisses;
+
+    /**
+     * The number of entities put into the second-level cache.
+     */
+    private long secondLevelCachePuts;
+
+    /**
+     * The number of query results found in the query cache.
+     */
+    private long queryCacheHits;
+
+    /**
+     * The number of query results looked up in the query cache but not found.
+     */
+    private long queryCacheMisses;
+
+    /**
+     * The number of query results put into the query cache.
+     */
+    private long queryCachePuts;
+
+    /**
+     * The statistics of the single cache regions.
+     */
+    private List<RegionStatistics> regions;
+
+    /**
+     * Inner class representing the statistics of one cache region.
+     */
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class RegionStatistics {
+        /**
+         * The name of the cache region.
+         */
+        private String name;
+
+        /**
+         * The number of lookups that found an entry in the region.
+         */
+        private long hits;
+
+        /**
+         * The number of lookups that found no entry in the region.
+         */
+        private long misses;
+
+        /**
+         * The number of entries put into the region.
+         */
+        private long puts;
+    }
+}
@@ -15,6 +15,11 @@ import java.util.List;
 @Setter
 @AllArgsConstructor
 public class DissolveResultDto {
+    /**
+     * The unique identifier of the dissolved WG.
+     */
+    private Long wgId;
+
     /**
      * A list of financial obligations between WG members as a result of inventory distribution.
      */
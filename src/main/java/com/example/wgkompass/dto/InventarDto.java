@@ -1,5 +1,6 @@
 package com.example.wgkompass.dto;
 
+import com.example.wgkompass.validation.LegalText;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -23,6 +24,7 @@ public class InventarDto {
     /**
      * The name of the inventory item.
      */
+    @LegalText
     private String name;
 
     /**
@@ -44,4 +46,9 @@ public class InventarDto {
      * The identifier of the WG (shared living community) to which this inventory item belongs.
      */
     private Long wgId;
+
+    /**
+     * The version of the inventory item, which a bulk update has to send back unchanged.
+     */
+    private Long version;
 }
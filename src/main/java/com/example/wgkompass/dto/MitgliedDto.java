@@ -1,5 +1,6 @@
 package com.example.wgkompass.dto;
 
+import com.example.wgkompass.validation.LegalText;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -21,15 +22,22 @@ public class MitgliedDto {
     /**
      * The first name of the member.
      */
+    @LegalText
     private String vorname;
 
     /**
      * The last name of the member.
      */
+    @LegalText
     private String nachname;
 
     /**
      * The identifier of the WG (shared living community) to which this member belongs.
      */
     private Long wgId;
+
+    /**
+     * The version of the member, which a bulk update has to send back unchanged.
+     */
+    private Long version;
 }
@@ -0,0 +1,49 @@
+package com.example.wgkompass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object representing the execution statistics of one normalized SQL statement.
+ * Statements that only differ in their literals or in the length of their IN lists share the same statistics.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class SqlQueryStatisticsDto {
+    /**
+     * The normalized SQL statement, with literals and IN lists replaced by placeholders.
+     */
+    private String sql;
+
+    /**
+     * The number of executions.
+     */
+    private long count;
+
+    /**
+     * The total duration of all executions in milliseconds.
+     */
+    private double totalMillis;
+
+    /**
+     * The mean duration of an execution in milliseconds.
+     */
+    private double meanMillis;
+
+    /**
+     * The duration of the slowest execution in milliseconds.
+     */
+    private double maxMillis;
+
+    /**
+     * The ID of the request that ran the slowest execution, or null if it did not run in a request.
+     */
+    private String slowestRequestId;
+
+    /**
+     * The method and URI of the request that ran the slowest execution, or null if it did not run in a request.
+     */
+    private String slowestRequest;
+}
@@ -0,0 +1,38 @@
+package com.example.wgkompass.dto;
+
+import com.example.wgkompass.services.DepreciationMethod;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object for valuing inventory items. This class is used to transfer data
+ * about which inventory items are to be valued, at which date and with which depreciation method.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class ValuationRequestDto {
+    /**
+     * The identifier of the WG whose complete inventory is valued. Takes precedence over inventarIds.
+     */
+    private Long wgId;
+
+    /**
+     * The identifiers of the inventory items to value, if no WG is given.
+     */
+    private List<Long> inventarIds;
+
+    /**
+     * The date to which the current values are calculated. Defaults to today.
+     */
+    private LocalDate valuationDate;
+
+    /**
+     * The depreciation method to apply. Defaults to the declining-balance method.
+     */
+    private DepreciationMethod method;
+}
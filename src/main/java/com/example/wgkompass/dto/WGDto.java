@@ -1,5 +1,6 @@
 package com.example.wgkompass.dto;
 
+import com.example.wgkompass.validation.LegalText;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -21,5 +22,11 @@ public class WGDto {
     /**
      * The name of the shared living community.
      */
+    @LegalText
     private String name;
+
+    /**
+     * The version of the shared living community, which a bulk update has to send back unchanged.
+     */
+    private Long version;
 }
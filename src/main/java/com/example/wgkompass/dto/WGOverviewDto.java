@@ -0,0 +1,42 @@
+package com.example.wgkompass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the overview of a WG (Wohngemeinschaft, shared living community).
+ * It combines the WG with its members, inventory items and tasks, so a client can load
+ * everything shown on the WG screen with a single request.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class WGOverviewDto {
+    /**
+     * The unique identifier for the shared living community.
+     */
+    private Long id;
+
+    /**
+     * The name of the shared living community.
+     */
+    private String name;
+
+    /**
+     * The members of the shared living community.
+     */
+    private List<MitgliedDto> mitglieder;
+
+    /**
+     * The inventory items of the shared living community.
+     */
+    private List<InventarDto> inventare;
+
+    /**
+     * The tasks of the shared living community.
+     */
+    private List<AufgabeDto> aufgaben;
+}
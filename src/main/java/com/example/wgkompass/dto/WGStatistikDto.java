@@ -0,0 +1,44 @@
+package com.example.wgkompass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for the aggregate counters of a WG (Wohngemeinschaft, shared living community),
+ * as shown on the WG screen of the frontend.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class WGStatistikDto {
+    /**
+     * The unique identifier of the WG.
+     */
+    private Long wgId;
+
+    /**
+     * The number of members of the WG.
+     */
+    private long mitglieder;
+
+    /**
+     * The number of inventory items of the WG.
+     */
+    private long inventare;
+
+    /**
+     * The total purchase price of the inventory items of the WG.
+     */
+    private double inventarKaufwert;
+
+    /**
+     * The total current value of the inventory items of the WG.
+     */
+    private double inventarAktuellerWert;
+
+    /**
+     * The number of open tasks of the WG.
+     */
+    private long offeneAufgaben;
+}
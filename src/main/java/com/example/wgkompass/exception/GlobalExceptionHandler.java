@@ -1,9 +1,15 @@
 package com.example.wgkompass.exception;
 
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 /**
  * The GlobalExceptionHandler class provides a centralized exception handling mechanism across the entire WG-Kompass application.
@@ -26,4 +32,61 @@ public class GlobalExceptionHandler {
     public String handleInvalidRequestException(InvalidRequestException e) {
         return e.getMessage();
     }
-}
+
+    /**
+     * Handles violated database constraints by returning a bad request response.
+     * They occur when a write references an entity that does not exist or violates another constraint,
+     * e.g. when a partial update sets the ID of an unknown WG. Repositories report them as
+     * DataIntegrityViolationException, while statements run directly on the EntityManager report
+     * Hibernate's ConstraintViolationException.
+     *
+     * @param e the caught exception
+     * @return a message describing the violation, to be included in the response body
+     */
+    @ExceptionHandler({DataIntegrityViolationException.class, ConstraintViolationException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleConstraintViolation(RuntimeException e) {
+        return "Referenced entity does not exist or a constraint is violated";
+    }
+
+    /**
+     * Handles an update that is based on an outdated version of an entity by returning a conflict response.
+     * It occurs when a bulk update sends an old version, or when another request changes the entity
+     * between the version check and the write. Repositories report it as OptimisticLockingFailureException,
+     * while the EntityManager reports JPA's OptimisticLockException.
+     *
+     * @param e the caught exception
+     * @return a message asking to reload the entity, to be included in the response body
+     */
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleOptimisticLockingFailure(RuntimeException e) {
+        return "The entity was changed in the meantime, reload it and try again";
+    }
+
+    /**
+     * Handles a request body that violates a Bean Validation constraint, e.g. a name annotated with @LegalText
+     * that contains illegal characters, by returning a bad request response.
+     *
+     * @param e the caught MethodArgumentNotValidException
+     * @return the message of the first violated constraint, to be included in the response body
+     */
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleMethodArgumentNotValidException(MethodArgumentNotValidException e) {
+        return e.getAllErrors().get(0).getDefaultMessage();
+    }
+
+    /**
+     * Handles a violated Bean Validation constraint on the elements of a list request body,
+     * as sent to the bulk endpoints, by returning a bad request response.
+     *
+     * @param e the caught HandlerMethodValidationException
+     * @return the message of the first violated constraint, to be included in the response body
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleHandlerMethodValidationException(HandlerMethodValidationException e) {
+        return e.getAllErrors().get(0).getDefaultMessage();
+    }
+}
\ No newline at end of file
@@ -22,11 +22,21 @@ public class Aufgabe {
 
     /**
      * The unique ID of the task.
+     * IDs are allocated in blocks from the id_generator table, so new rows can be inserted in JDBC batches.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "aufgabe_id")
+    @TableGenerator(name = "aufgabe_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "aufgabe", allocationSize = 50)
     private Long id;
 
+    /**
+     * The version of the task, incremented by every update.
+     * It is used for optimistic locking and as the ETag of the task.
+     */
+    @Version
+    private long version;
+
     /**
      * The title of the task.
      */
@@ -42,16 +52,18 @@ public class Aufgabe {
     /**
      * The WG to which the task belongs.
      * This is represented as a many-to-one relationship, where many tasks can be associated with one WG.
+     * It is loaded lazily, as reading the WG ID from the proxy does not need the WG row.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "wg_id", nullable = false)
     private WG wg;
 
     /**
      * The member responsible for this task.
      * This is also a many-to-one relationship, indicating that a member can be responsible for many tasks.
+     * It is loaded lazily, as reading the member ID from the proxy does not need the member row.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "verantwortliches_mitglied_id", nullable = true)
     private Mitglied verantwortlichesMitglied;
 }
\ No newline at end of file
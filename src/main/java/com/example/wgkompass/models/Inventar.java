@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.util.Date;
 
 /**
@@ -22,11 +23,21 @@ public class Inventar {
 
     /**
      * The unique ID of the inventory item.
+     * IDs are allocated in blocks from the id_generator table, so new rows can be inserted in JDBC batches.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "inventar_id")
+    @TableGenerator(name = "inventar_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "inventar", allocationSize = 50)
     private Long id;
 
+    /**
+     * The version of the inventory item, incremented by every update.
+     * It is used for optimistic locking and as the ETag of the inventory item.
+     */
+    @Version
+    private long version;
+
     /**
      * The name of the inventory item.
      */
@@ -51,11 +62,25 @@ public class Inventar {
     @Column(name = "Abschreibungssatz")
     private Double abschreibungssatz;
 
+    /**
+     * The snapshot of the current value of the inventory item with the declining-balance method,
+     * valid for the valuation date below. It is refreshed when the item is saved and every night.
+     */
+    @Column(name = "AktuellerWert")
+    private Double aktuellerWert;
+
+    /**
+     * The date the current value was calculated for, or null if the snapshot has to be recalculated.
+     */
+    @Column(name = "Bewertungsdatum")
+    private LocalDate bewertungsdatum;
+
     /**
      * The WG to which the inventory item belongs.
      * This is represented as a many-to-one relationship, where many inventory items can belong to one WG.
+     * It is loaded lazily, as reading the WG ID from the proxy does not need the WG row.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "wg_id", nullable = false)
     private WG wg;
 }
\ No newline at end of file
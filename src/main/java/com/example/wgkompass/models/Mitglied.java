@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotBlank;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.util.Date;
@@ -13,13 +15,24 @@ import java.util.Date;
 @Setter
 @Entity
 @Table(name = "Mitglied")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "mitglied")
 public class Mitglied {
     /**
      * The unique ID of the member.
+     * IDs are allocated in blocks from the id_generator table, so new rows can be inserted in JDBC batches.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "mitglied_id")
+    @TableGenerator(name = "mitglied_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "mitglied", allocationSize = 50)
     private Long id;
+
+    /**
+     * The version of the member, incremented by every update.
+     * It is used for optimistic locking and as the ETag of the member.
+     */
+    @Version
+    private long version;
     /**
      * The first name of the member.
      */
@@ -35,8 +48,9 @@ public class Mitglied {
     /**
      * The WG to which the member belongs.
      * This is represented as a many-to-one relationship, where many members can belong to one WG.
+     * It is loaded lazily, as reading the WG ID from the proxy does not need the WG row.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "wg_id", nullable = false)
     private WG wg;
 
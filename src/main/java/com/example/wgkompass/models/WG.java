@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotBlank;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.util.List;
@@ -13,19 +15,31 @@ import java.util.List;
 @Setter
 @Entity
 @Table(name= "WG")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "wg")
 /**
  * The WG class represents a shared living community (WG, Wohngemeinschaft).
 
  * It contains properties to uniquely identify a WG and to manage its relationships with inventory, members, and tasks.
+ * WGs rarely change, so they are kept in the second-level cache region "wg".
  */
 public class WG {
     /**
      * The unique ID of the wg.
+     * IDs are allocated in blocks from the id_generator table, so new rows can be inserted in JDBC batches.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "wg_id")
+    @TableGenerator(name = "wg_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "wg", allocationSize = 50)
     private Long id;
 
+    /**
+     * The version of the wg, incremented by every update.
+     * It is used for optimistic locking and as the ETag of the wg.
+     */
+    @Version
+    private long version;
+
     /**
      * The name of the wg.
      */
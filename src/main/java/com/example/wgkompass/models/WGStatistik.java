@@ -0,0 +1,56 @@
+package com.example.wgkompass.models;
+
+import jakarta.persistence.*;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The WGStatistik class holds the aggregate counters of a WG (Wohngemeinschaft, shared living community),
+ * so they can be read with a single row instead of reducing the lists of members, inventory items and tasks.
+ * The counters are updated by the services in the same transaction as the change they reflect,
+ * and recomputed from scratch by a repair job.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "WG_Statistik")
+public class WGStatistik {
+
+    /**
+     * The ID of the WG the counters belong to.
+     */
+    @Id
+    @Column(name = "wg_id")
+    private Long wgId;
+
+    /**
+     * The number of members of the WG.
+     */
+    @Column(name = "Mitglieder")
+    private long mitglieder;
+
+    /**
+     * The number of inventory items of the WG.
+     */
+    @Column(name = "Inventare")
+    private long inventare;
+
+    /**
+     * The total purchase price of the inventory items of the WG.
+     */
+    @Column(name = "InventarKaufwert")
+    private double inventarKaufwert;
+
+    /**
+     * The total current value of the inventory items of the WG, the sum of their valuation snapshots.
+     */
+    @Column(name = "InventarAktuellerWert")
+    private double inventarAktuellerWert;
+
+    /**
+     * The number of open tasks of the WG. Tasks cannot be completed yet, so every task is open.
+     */
+    @Column(name = "OffeneAufgaben")
+    private long offeneAufgaben;
+}
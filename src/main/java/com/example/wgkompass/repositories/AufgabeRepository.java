@@ -1,10 +1,18 @@
 package com.example.wgkompass.repositories;
 
+import com.example.wgkompass.dto.AufgabeDto;
 import com.example.wgkompass.models.Aufgabe;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * The AufgabeRepository interface provides the mechanism for storage, retrieval,
@@ -13,4 +21,47 @@ import java.util.List;
 @Repository
 public interface AufgabeRepository extends JpaRepository<Aufgabe, Long>{
     List<Aufgabe> findAllByWgId(Long wgId);
+
+    /**
+     * Selects exactly the columns of a AufgabeDto, reading the related IDs from the foreign key columns,
+     * so read endpoints neither instantiate entities nor load their relations.
+     */
+    String DTO_SELECT = "select new com.example.wgkompass.dto.AufgabeDto(a.id, a.titel, a.beschreibung, a.wg.id, a.verantwortlichesMitglied.id, a.version) from Aufgabe a";
+
+    @Query(DTO_SELECT + " order by a.id")
+    List<AufgabeDto> findAllDtos();
+
+    @Query(DTO_SELECT + " where a.id = :id")
+    Optional<AufgabeDto> findDtoById(Long id);
+
+    @Query("select a.version from Aufgabe a where a.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Summarises the tasks of a WG as their number, the sum of their versions and the highest ID.
+     * Every insert, update, delete or move of a row changes the summary, so it serves as the ETag of the list.
+     */
+    @Query("select concat(cast(count(a) as String), '-', cast(coalesce(sum(a.version), 0) as String), '-', cast(coalesce(max(a.id), 0) as String))"
+            + " from Aufgabe a where a.wg.id = :wgId")
+    String findListVersionByWgId(Long wgId);
+
+    @Query(DTO_SELECT + " where a.wg.id = :wgId order by a.id")
+    List<AufgabeDto> findDtosByWgId(Long wgId);
+
+    @Query(DTO_SELECT + " where a.id > :after order by a.id")
+    List<AufgabeDto> findDtosAfter(Long after, Limit limit);
+
+    @Query(DTO_SELECT + " where a.wg.id = :wgId and a.id > :after order by a.id")
+    List<AufgabeDto> findDtosByWgIdAfter(Long wgId, Long after, Limit limit);
+
+    /**
+     * Streams all Aufgabe entities ordered by ID. The rows are fetched from the database in batches
+     * and loaded read-only, so the caller has to consume the stream within a transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from Aufgabe a order by a.id")
+    Stream<Aufgabe> streamAll();
 }
\ No newline at end of file
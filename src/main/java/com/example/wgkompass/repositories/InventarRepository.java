@@ -1,10 +1,18 @@
 package com.example.wgkompass.repositories;
 
+import com.example.wgkompass.dto.InventarDto;
 import com.example.wgkompass.models.Inventar;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * The InventarRepository interface handles the operations for storage, retrieval,
@@ -13,4 +21,47 @@ import java.util.List;
 @Repository
 public interface InventarRepository extends JpaRepository<Inventar, Long>{
     List<Inventar> findAllByWgId(Long wgId);
+
+    /**
+     * Selects exactly the columns of a InventarDto, reading the related IDs from the foreign key columns,
+     * so read endpoints neither instantiate entities nor load their relations.
+     */
+    String DTO_SELECT = "select new com.example.wgkompass.dto.InventarDto(i.id, i.name, i.preis, i.kaufdatum, i.abschreibungssatz, i.wg.id, i.version) from Inventar i";
+
+    @Query(DTO_SELECT + " order by i.id")
+    List<InventarDto> findAllDtos();
+
+    @Query(DTO_SELECT + " where i.id = :id")
+    Optional<InventarDto> findDtoById(Long id);
+
+    @Query("select i.version from Inventar i where i.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Summarises the inventory items of a WG as their number, the sum of their versions and the highest ID.
+     * Every insert, update, delete or move of a row changes the summary, so it serves as the ETag of the list.
+     */
+    @Query("select concat(cast(count(i) as String), '-', cast(coalesce(sum(i.version), 0) as String), '-', cast(coalesce(max(i.id), 0) as String))"
+            + " from Inventar i where i.wg.id = :wgId")
+    String findListVersionByWgId(Long wgId);
+
+    @Query(DTO_SELECT + " where i.wg.id = :wgId order by i.id")
+    List<InventarDto> findDtosByWgId(Long wgId);
+
+    @Query(DTO_SELECT + " where i.id > :after order by i.id")
+    List<InventarDto> findDtosAfter(Long after, Limit limit);
+
+    @Query(DTO_SELECT + " where i.wg.id = :wgId and i.id > :after order by i.id")
+    List<InventarDto> findDtosByWgIdAfter(Long wgId, Long after, Limit limit);
+
+    /**
+     * Streams all Inventar entities ordered by ID. The rows are fetched from the database in batches
+     * and loaded read-only, so the caller has to consume the stream within a transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i from Inventar i order by i.id")
+    Stream<Inventar> streamAll();
 }
\ No newline at end of file
@@ -1,10 +1,19 @@
 package com.example.wgkompass.repositories;
 
+import com.example.wgkompass.dto.MitgliedDto;
 import com.example.wgkompass.models.Mitglied;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * The MitgliedRepository interface handles the operations for storage, retrieval,
@@ -12,5 +21,59 @@ import java.util.List;
  */
 @Repository
 public interface MitgliedRepository extends JpaRepository<Mitglied, Long>{
+    /**
+     * Finds all members of a WG. The result is kept in the query cache region "mitglieder-by-wg"
+     * and is invalidated by Hibernate whenever a member is written.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "mitglieder-by-wg")
+    })
     List<Mitglied> findAllByWgId(Long wgId);
+
+    /**
+     * Selects exactly the columns of a MitgliedDto, reading the related IDs from the foreign key columns,
+     * so read endpoints neither instantiate entities nor load their relations.
+     */
+    String DTO_SELECT = "select new com.example.wgkompass.dto.MitgliedDto(m.id, m.vorname, m.nachname, m.wg.id, m.version) from Mitglied m";
+
+    @Query(DTO_SELECT + " order by m.id")
+    List<MitgliedDto> findAllDtos();
+
+    @Query(DTO_SELECT + " where m.id = :id")
+    Optional<MitgliedDto> findDtoById(Long id);
+
+    @Query("select m.version from Mitglied m where m.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Summarises the members of a WG as their number, the sum of their versions and the highest ID.
+     * Every insert, update, delete or move of a row changes the summary, so it serves as the ETag of the list.
+     */
+    @Query("select concat(cast(count(m) as String), '-', cast(coalesce(sum(m.version), 0) as String), '-', cast(coalesce(max(m.id), 0) as String))"
+            + " from Mitglied m where m.wg.id = :wgId")
+    String findListVersionByWgId(Long wgId);
+
+    @Query(DTO_SELECT + " where m.wg.id = :wgId order by m.id")
+    List<MitgliedDto> findDtosByWgId(Long wgId);
+
+    @Query(DTO_SELECT + " where m.id > :after order by m.id")
+    List<MitgliedDto> findDtosAfter(Long after, Limit limit);
+
+    @Query(DTO_SELECT + " where m.wg.id in :wgIds order by m.id")
+    List<MitgliedDto> findDtosByWgIdIn(Collection<Long> wgIds);
+
+    @Query(DTO_SELECT + " where m.wg.id = :wgId and m.id > :after order by m.id")
+    List<MitgliedDto> findDtosByWgIdAfter(Long wgId, Long after, Limit limit);
+
+    /**
+     * Streams all Mitglied entities ordered by ID. The rows are fetched from the database in batches
+     * and loaded read-only, so the caller has to consume the stream within a transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select m from Mitglied m order by m.id")
+    Stream<Mitglied> streamAll();
 }
\ No newline at end of file
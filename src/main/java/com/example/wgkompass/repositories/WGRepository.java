@@ -1,13 +1,33 @@
 package com.example.wgkompass.repositories;
 
 import com.example.wgkompass.models.WG;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * The WGRepository interface handles the operations for storage, retrieval,
  * update, and delete of WG entities.
  */
 @Repository
 public interface WGRepository extends JpaRepository<WG, Long> {
+    List<WG> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Streams all WG entities ordered by ID. The rows are fetched from the database in batches
+     * and loaded read-only, so the caller has to consume the stream within a transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select w from WG w order by w.id")
+    Stream<WG> streamAll();
 }
\ No newline at end of file
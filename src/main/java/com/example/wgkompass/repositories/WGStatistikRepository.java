@@ -0,0 +1,13 @@
+package com.example.wgkompass.repositories;
+
+import com.example.wgkompass.models.WGStatistik;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The WGStatistikRepository interface handles the operations for storage and retrieval
+ * of the aggregate counters of the WGs.
+ */
+@Repository
+public interface WGStatistikRepository extends JpaRepository<WGStatistik, Long> {
+}
@@ -0,0 +1,34 @@
+package com.example.wgkompass.services;
+
+import com.example.wgkompass.exception.InvalidRequestException;
+
+/**
+ * The AssignmentScope enum defines which tasks of a WG are spread across its members by the automatic assignment.
+ */
+public enum AssignmentScope {
+    /**
+     * Only tasks without a responsible member of the WG are assigned, the other tasks count towards the load of their member.
+     */
+    UNASSIGNED,
+
+    /**
+     * All tasks are assigned anew, starting from members without any load.
+     */
+    ALL;
+
+    /**
+     * Parses an assignment scope from a request parameter, ignoring case.
+     *
+     * @param value The value of the request parameter.
+     * @return The matching assignment scope.
+     * @throws InvalidRequestException if the value does not name an assignment scope.
+     */
+    public static AssignmentScope fromParameter(String value) {
+        for (AssignmentScope scope : values()) {
+            if (scope.name().equalsIgnoreCase(value)) {
+                return scope;
+            }
+        }
+        throw new InvalidRequestException("Unknown assignment scope: " + value);
+    }
+}
@@ -1,12 +1,34 @@
 package com.example.wgkompass.services;
 
+import com.example.wgkompass.dto.AssignmentResultDto;
+import com.example.wgkompass.dto.AufgabeDto;
+import com.example.wgkompass.exception.InvalidRequestException;
 import com.example.wgkompass.models.Aufgabe;
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
 import com.example.wgkompass.repositories.AufgabeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * The AufgabeService class provides business logic and operations for Aufgabe (task) entities.
@@ -14,15 +36,32 @@ import java.util.Optional;
  */
 @Service
 public class AufgabeService {
+
+    /**
+     * Sets the responsible member of a task. It is sent over JDBC, so all changed tasks go out in one batch;
+     * tasks are not in the second-level cache, so no cached state goes stale.
+     */
+    private static final String ASSIGN = "update aufgabe set verantwortliches_mitglied_id = ?, version = version + 1 where id = ?";
+
     @Autowired
     private AufgabeRepository aufgabeRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WGStatistikService wgStatistikService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Retrieves an Aufgabe entity by its ID.
      *
      * @param id The ID of the Aufgabe to be retrieved.
      * @return An Optional containing the Aufgabe if found, or an empty Optional otherwise.
      */
+    @Transactional(readOnly = true)
     public Optional<Aufgabe> getById(Long id) {
         return aufgabeRepository.findById(id);
     }
@@ -32,6 +71,7 @@ public class AufgabeService {
      *
      * @return An Iterable of all Aufgabe entities.
      */
+    @Transactional(readOnly = true)
     public Iterable<Aufgabe> getAll() {
         return aufgabeRepository.findAll();
     }
@@ -42,18 +82,264 @@ public class AufgabeService {
      * @param wgId The ID of the WG.
      * @return A List of Aufgabe entities associated with the WG.
      */
+    @Transactional(readOnly = true)
     public List<Aufgabe> getAllByWgId(Long wgId) {
         return aufgabeRepository.findAllByWgId(wgId);
     }
 
+    /**
+     * Retrieves a Aufgabe as DTO by its ID, selecting only the DTO columns.
+     *
+     * @param id The ID of the Aufgabe to be retrieved.
+     * @return An Optional containing the AufgabeDto if found, or an empty Optional otherwise.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AufgabeDto> getDtoById(Long id) {
+        return aufgabeRepository.findDtoById(id);
+    }
+
+    /**
+     * Retrieves all Aufgabe entries as DTOs ordered by ID, selecting only the DTO columns.
+     *
+     * @return A List of all AufgabeDto.
+     */
+    @Transactional(readOnly = true)
+    public List<AufgabeDto> getAllDtos() {
+        return aufgabeRepository.findAllDtos();
+    }
+
+    /**
+     * Retrieves all Aufgabe entries of a specific WG as DTOs ordered by ID, selecting only the DTO columns.
+     *
+     * @param wgId The ID of the WG.
+     * @return A List of AufgabeDto associated with the WG.
+     */
+    @Transactional(readOnly = true)
+    public List<AufgabeDto> getDtosByWgId(Long wgId) {
+        return aufgabeRepository.findDtosByWgId(wgId);
+    }
+
+    /**
+     * Retrieves a page of Aufgabe entries as DTOs with an ID greater than the given cursor, ordered by ID.
+     *
+     * @param after The cursor; only entries with a greater ID are returned.
+     * @param limit The maximum number of entries to return.
+     * @return A List of at most limit AufgabeDto.
+     */
+    @Transactional(readOnly = true)
+    public List<AufgabeDto> getDtoPage(long after, int limit) {
+        return aufgabeRepository.findDtosAfter(after, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a page of Aufgabe entries of a specific WG as DTOs with an ID greater than the given cursor, ordered by ID.
+     *
+     * @param wgId The ID of the WG.
+     * @param after The cursor; only entries with a greater ID are returned.
+     * @param limit The maximum number of entries to return.
+     * @return A List of at most limit AufgabeDto associated with the WG.
+     */
+    @Transactional(readOnly = true)
+    public List<AufgabeDto> getDtoPageByWgId(Long wgId, long after, int limit) {
+        return aufgabeRepository.findDtosByWgIdAfter(wgId, after, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves the version of a Aufgabe without loading it.
+     *
+     * @param id The ID of the Aufgabe.
+     * @return An Optional containing the version if the Aufgabe exists, or an empty Optional otherwise.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(Long id) {
+        return aufgabeRepository.findVersionById(id);
+    }
+
+    /**
+     * Retrieves a summary of all Aufgabe entries of a specific WG that changes whenever one of them changes.
+     *
+     * @param wgId The ID of the WG.
+     * @return The version summary of the Aufgabe entries of the WG.
+     */
+    @Transactional(readOnly = true)
+    public String getListVersionByWgId(Long wgId) {
+        return aufgabeRepository.findListVersionByWgId(wgId);
+    }
+
     /**
      * Saves an Aufgabe entity to the repository.
      * If the Aufgabe already exists, it will be updated; otherwise, a new Aufgabe will be created.
+     * The counters of the previous and the current WG are updated in the same transaction.
      *
      * @param aufgabe The Aufgabe entity to be saved.
      * @return The saved Aufgabe entity.
      */
+    @Transactional
     public Aufgabe save(Aufgabe aufgabe) {
-        return aufgabeRepository.save(aufgabe);
+        Aufgabe stored = aufgabe.getId() != null ? entityManager.find(Aufgabe.class, aufgabe.getId()) : null;
+        Long fromWgId = stored != null ? WGStatistikService.wgIdOf(stored.getWg()) : null;
+        Aufgabe saved = aufgabeRepository.save(aufgabe);
+
+        WGStatistikService.Changes changes = new WGStatistikService.Changes();
+        changes.aufgabe(fromWgId, WGStatistikService.wgIdOf(saved.getWg()));
+        wgStatistikService.apply(changes);
+        return saved;
+    }
+
+    /**
+     * Applies the non-null fields of the DTO to an Aufgabe with a single UPDATE statement, without loading the entity. Related entities are referenced by their ID only, so they are not loaded either.
+     * The version is incremented, so ETags of the Aufgabe change as with a regular update.
+     * A move to another WG also updates the counters of both WGs: the previous WG ID is read first with one
+     * scalar query that locks the row, and the counters are changed with one UPDATE per affected WG.
+     *
+     * @param id The ID of the Aufgabe to be changed.
+     * @param changes The DTO holding the fields to change; null fields are left unchanged.
+     * @return true if the Aufgabe exists and was changed, false otherwise.
+     * @throws InvalidRequestException if the DTO contains no field to change.
+     */
+    @Transactional
+    public boolean patch(Long id, AufgabeDto changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Aufgabe> update = cb.createCriteriaUpdate(Aufgabe.class);
+        Root<Aufgabe> root = update.from(Aufgabe.class);
+        boolean changed = false;
+        if (changes.getTitel() != null) {
+            update.set(root.get("titel"), changes.getTitel());
+            changed = true;
+        }
+        if (changes.getBeschreibung() != null) {
+            update.set(root.get("beschreibung"), changes.getBeschreibung());
+            changed = true;
+        }
+        if (changes.getWgId() != null) {
+            update.set(root.get("wg"), entityManager.getReference(WG.class, changes.getWgId()));
+            changed = true;
+        }
+        if (changes.getVerantwortlichesMitgliedId() != null) {
+            update.set(root.get("verantwortlichesMitglied"), entityManager.getReference(Mitglied.class, changes.getVerantwortlichesMitgliedId()));
+            changed = true;
+        }
+        if (!changed) {
+            throw new InvalidRequestException("No fields to update");
+        }
+        List<Long> stored = null;
+        if (changes.getWgId() != null) {
+            stored = entityManager.createQuery("select a.wg.id from Aufgabe a where a.id = :id", Long.class)
+                    .setParameter("id", id)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList();
+            if (stored.isEmpty()) {
+                return false;
+            }
+        }
+        Long fromWgId = stored != null ? stored.get(0) : null;
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.where(cb.equal(root.get("id"), id));
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            return false;
+        }
+        if (stored != null) {
+            WGStatistikService.Changes statistikChanges = new WGStatistikService.Changes();
+            statistikChanges.aufgabe(fromWgId, changes.getWgId());
+            wgStatistikService.apply(statistikChanges);
+        }
+        return true;
+    }
+
+    /**
+     * Saves many Aufgabe entities in one transaction, so their inserts and updates are sent in JDBC batches.
+     * Entities with an ID update the existing Aufgabe. The existing entities are loaded with one query and
+     * their versions are compared with the given ones, so a concurrent change is rejected instead of overwritten. The counters of all affected WGs
+     * are updated with one statement per WG.
+     *
+     * @param aufgaben The Aufgabe entities to be saved.
+     * @return The saved Aufgabe entities.
+     * @throws InvalidRequestException if an Aufgabe with one of the given IDs does not exist.
+     * @throws ObjectOptimisticLockingFailureException if an Aufgabe was changed since the given version.
+     */
+    @Transactional
+    public List<Aufgabe> saveAll(List<Aufgabe> aufgaben) {
+        List<Long> ids = aufgaben.stream().map(Aufgabe::getId).filter(Objects::nonNull).toList();
+        Map<Long, Aufgabe> existing = aufgabeRepository.findAllById(ids).stream().collect(Collectors.toMap(Aufgabe::getId, Function.identity()));
+        WGStatistikService.Changes changes = new WGStatistikService.Changes();
+        for (Aufgabe aufgabe : aufgaben) {
+            Long fromWgId = null;
+            if (aufgabe.getId() != null) {
+                Aufgabe stored = existing.get(aufgabe.getId());
+                if (stored == null) {
+                    throw new InvalidRequestException("Aufgabe " + aufgabe.getId() + " does not exist");
+                }
+                if (aufgabe.getVersion() != stored.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(Aufgabe.class, aufgabe.getId());
+                }
+                fromWgId = WGStatistikService.wgIdOf(stored.getWg());
+            }
+            changes.aufgabe(fromWgId, WGStatistikService.wgIdOf(aufgabe.getWg()));
+        }
+        List<Aufgabe> saved = aufgabeRepository.saveAll(aufgaben);
+        wgStatistikService.apply(changes);
+        return saved;
+    }
+
+    /**
+     * Spreads the tasks of a WG across its members, so every member ends up with about the same number of tasks.
+     * The members are kept in a heap ordered by their current load, and every task to assign goes to the member
+     * with the lowest load, the one with the lower ID on a tie. Only the IDs of the tasks and members are loaded,
+     * and all tasks whose member changes are updated in a single JDBC batch within the transaction, which also
+     * increments their versions.
+     *
+     * @param wgId The ID of the WG.
+     * @param scope Whether only the unassigned tasks or all tasks are assigned.
+     * @return The result of the assignment, or an empty Optional if the WG does not exist.
+     * @throws InvalidRequestException if the WG has no members.
+     */
+    @Transactional
+    public Optional<AssignmentResultDto> assign(Long wgId, AssignmentScope scope) {
+        if (entityManager.find(WG.class, wgId) == null) {
+            return Optional.empty();
+        }
+        long[] memberIds = entityManager.createQuery("select m.id from Mitglied m where m.wg.id = :wgId order by m.id", Long.class)
+                .setParameter("wgId", wgId).getResultList().stream().mapToLong(Long::longValue).toArray();
+        if (memberIds.length == 0) {
+            throw new InvalidRequestException("WG " + wgId + " has no members to assign tasks to");
+        }
+        List<Object[]> aufgaben = entityManager.createQuery("select a.id, a.verantwortlichesMitglied.id from Aufgabe a"
+                + " where a.wg.id = :wgId order by a.id", Object[].class).setParameter("wgId", wgId).getResultList();
+
+        // the member IDs are sorted, so the slot of a member is found by binary search
+        long[] loads = new long[memberIds.length];
+        List<Object[]> toAssign = new ArrayList<>();
+        for (Object[] aufgabe : aufgaben) {
+            int slot = aufgabe[1] != null ? Arrays.binarySearch(memberIds, (Long) aufgabe[1]) : -1;
+            if (scope == AssignmentScope.UNASSIGNED && slot >= 0) {
+                loads[slot]++;
+            } else {
+                toAssign.add(aufgabe);
+            }
+        }
+
+        PriorityQueue<Integer> members = new PriorityQueue<>(memberIds.length,
+                (a, b) -> loads[a] != loads[b] ? Long.compare(loads[a], loads[b]) : Integer.compare(a, b));
+        for (int slot = 0; slot < memberIds.length; slot++) {
+            members.add(slot);
+        }
+        List<Object[]> updates = new ArrayList<>();
+        for (Object[] aufgabe : toAssign) {
+            int slot = members.poll();
+            loads[slot]++;
+            members.add(slot);
+            if (!Long.valueOf(memberIds[slot]).equals(aufgabe[1])) {
+                updates.add(new Object[]{memberIds[slot], aufgabe[0]});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(ASSIGN, updates);
+        }
+
+        List<AssignmentResultDto.MemberLoad> memberLoads = new ArrayList<>(memberIds.length);
+        for (int slot = 0; slot < memberIds.length; slot++) {
+            memberLoads.add(new AssignmentResultDto.MemberLoad(memberIds[slot], loads[slot]));
+        }
+        return Optional.of(new AssignmentResultDto(wgId, updates.size(), memberLoads));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package com.example.wgkompass.services;
+
+import com.example.wgkompass.dto.CacheStatisticsDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CacheStatisticsService class reads the hit and miss statistics of the Hibernate second-level cache,
+ * which holds the WG and Mitglied entities and the cached member queries.
+ */
+@Service
+public class CacheStatisticsService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Collects the current statistics of the entity cache, the query cache and every cache region.
+     *
+     * @return A CacheStatisticsDto with the totals and the statistics per region.
+     */
+    public CacheStatisticsDto getStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheStatisticsDto.RegionStatistics> regions = new ArrayList<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.add(new CacheStatisticsDto.RegionStatistics(regionName, region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        return new CacheStatisticsDto(
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(),
+                regions);
+    }
+}
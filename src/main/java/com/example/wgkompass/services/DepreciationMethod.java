@@ -0,0 +1,17 @@
+package com.example.wgkompass.services;
+
+/**
+ * The DepreciationMethod enum defines how the current value of an inventory item is derived
+ * from its purchase price, its annual depreciation rate and the full years since its purchase.
+ */
+public enum DepreciationMethod {
+    /**
+     * Every year the item loses the depreciation rate of its remaining value.
+     */
+    DECLINING_BALANCE,
+
+    /**
+     * Every year the item loses the depreciation rate of its purchase price, until it is worth nothing.
+     */
+    LINEAR
+}
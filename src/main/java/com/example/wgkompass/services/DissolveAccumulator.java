@@ -0,0 +1,142 @@
+package com.example.wgkompass.services;
+
+import com.example.wgkompass.dto.DissolveResultDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The DissolveAccumulator class aggregates the debts that arise when WG members take over inventory items.
+ * Every member of the WG is assigned a fixed slot, and the value taken over by each member is summed up
+ * in a primitive array indexed by that slot. A member who takes over an item owes every other member
+ * an equal share of its current value, so the debt between two members only depends on the total value
+ * taken over by the payer.
+ */
+public class DissolveAccumulator {
+
+    /**
+     * Balances below this amount are treated as settled to absorb floating point rounding.
+     */
+    private static final double SETTLED_THRESHOLD = 1e-6;
+
+    /**
+     * The sorted member IDs of the WG. The position of an ID in this array is the slot of the member.
+     */
+    private final long[] memberIds;
+
+    /**
+     * The total current value of all items taken over, indexed by member slot.
+     */
+    private final double[] takenValues;
+
+    /**
+     * Whether a member took over at least one item, indexed by member slot.
+     */
+    private final boolean[] tookItems;
+
+    /**
+     * Creates an accumulator for the given WG members.
+     *
+     * @param memberIds The IDs of all members of the WG.
+     */
+    public DissolveAccumulator(long[] memberIds) {
+        this.memberIds = memberIds.clone();
+        Arrays.sort(this.memberIds);
+        this.takenValues = new double[memberIds.length];
+        this.tookItems = new boolean[memberIds.length];
+    }
+
+    /**
+     * Returns the slot of the given member, or a negative value if the member does not belong to the WG.
+     *
+     * @param mitgliedId The ID of the member.
+     * @return The slot of the member, or a negative value if unknown.
+     */
+    public int slotOf(long mitgliedId) {
+        return Arrays.binarySearch(memberIds, mitgliedId);
+    }
+
+    /**
+     * Records that the member in the given slot takes over an item with the given current value.
+     *
+     * @param slot The slot of the member taking over the item.
+     * @param currentValue The current value of the item.
+     */
+    public void add(int slot, double currentValue) {
+        takenValues[slot] += currentValue;
+        tookItems[slot] = true;
+    }
+
+    /**
+     * Builds the pairwise financial obligations between all members, one for every payer that took over
+     * at least one item and every other member of the WG.
+     *
+     * @return A list of pairwise financial obligations.
+     */
+    public List<DissolveResultDto.MemberFinancialObligation> toObligations() {
+        int memberCount = memberIds.length;
+        List<DissolveResultDto.MemberFinancialObligation> obligations = new ArrayList<>();
+        for (int payer = 0; payer < memberCount; payer++) {
+            if (!tookItems[payer]) {
+                continue;
+            }
+            double amountPerMember = takenValues[payer] / memberCount;
+            for (int recipient = 0; recipient < memberCount; recipient++) {
+                if (recipient != payer) {
+                    obligations.add(new DissolveResultDto.MemberFinancialObligation(memberIds[payer], memberIds[recipient], amountPerMember));
+                }
+            }
+        }
+        return obligations;
+    }
+
+    /**
+     * Builds a near-minimal set of transfers that settles the net balance of every member.
+     * The balance of a member is their share of the total value minus the value they took over.
+     * The largest debtor repeatedly pays the largest creditor until all balances are settled,
+     * which needs at most one transfer less than there are members and runs in O(n log n).
+     *
+     * @return A list of financial obligations settling the net balances.
+     */
+    public List<DissolveResultDto.MemberFinancialObligation> toNetObligations() {
+        int memberCount = memberIds.length;
+        double totalShare = 0;
+        for (double takenValue : takenValues) {
+            totalShare += takenValue;
+        }
+        totalShare /= memberCount;
+
+        double[] balances = new double[memberCount];
+        PriorityQueue<Integer> creditors = new PriorityQueue<>(Math.max(1, memberCount), (a, b) -> Double.compare(balances[b], balances[a]));
+        PriorityQueue<Integer> debtors = new PriorityQueue<>(Math.max(1, memberCount), (a, b) -> Double.compare(balances[a], balances[b]));
+        for (int slot = 0; slot < memberCount; slot++) {
+            balances[slot] = totalShare - takenValues[slot];
+            if (balances[slot] > SETTLED_THRESHOLD) {
+                creditors.add(slot);
+            } else if (balances[slot] < -SETTLED_THRESHOLD) {
+                debtors.add(slot);
+            }
+        }
+
+        List<DissolveResultDto.MemberFinancialObligation> obligations = new ArrayList<>();
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            int creditor = creditors.poll();
+            int debtor = debtors.poll();
+            double amount = Math.min(balances[creditor], -balances[debtor]);
+            obligations.add(new DissolveResultDto.MemberFinancialObligation(memberIds[debtor], memberIds[creditor], amount));
+
+            // the remaining balances change before the slots are offered to the queues again
+            balances[creditor] -= amount;
+            balances[debtor] += amount;
+            if (balances[creditor] > SETTLED_THRESHOLD) {
+                creditors.add(creditor);
+            }
+            if (balances[debtor] < -SETTLED_THRESHOLD) {
+                debtors.add(debtor);
+            }
+        }
+        return obligations;
+    }
+}
@@ -0,0 +1,569 @@
+package com.example.wgkompass.services;
+
+import com.example.wgkompass.dto.DissolveInventoryDto;
+import com.example.wgkompass.dto.DissolveResultDto;
+import com.example.wgkompass.dto.MitgliedDto;
+import com.example.wgkompass.exception.InvalidRequestException;
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.Mitglied;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The DissolveService class provides the business logic for dissolving the inventory of a WG.
+ * It loads all inventory items of a dissolution request at once, calculates their current value
+ * and aggregates the resulting financial obligations between the WG members.
+ * Batches of dissolutions are loaded together and calculated in parallel on a bounded fork-join pool.
+ * The duration of every dissolution is recorded by the "wgkompass.dissolve" timer.
+ */
+@Service
+public class DissolveService {
+
+    private static final Logger log = LoggerFactory.getLogger(DissolveService.class);
+
+    /**
+     * The number of inventory items that are loaded together with one query.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * The name of the timer measuring dissolution requests, tagged with the settlement mode and the kind of input.
+     */
+    private static final String DISSOLVE_TIMER = "wgkompass.dissolve";
+
+    @Autowired
+    private InventarService inventarService;
+
+    @Autowired
+    private MitgliedService mitgliedService;
+
+    @Autowired
+    private ValuationService valuationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The number of dissolutions of a batch that are calculated at the same time.
+     */
+    @Value("${wgkompass.dissolve.parallelism}")
+    private int parallelism;
+
+    private ForkJoinPool dissolvePool;
+
+    /**
+     * Creates the fork-join pool calculating the dissolutions of a batch.
+     */
+    @PostConstruct
+    public void startDissolvePool() {
+        dissolvePool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Shuts the fork-join pool down when the application stops.
+     */
+    @PreDestroy
+    public void stopDissolvePool() {
+        dissolvePool.shutdownNow();
+    }
+
+    /**
+     * Calculates the financial obligations and current values of inventory items based on the provided mapping.
+     * All mapped inventory items are loaded with a single query and must belong to the WG being dissolved.
+     *
+     * @param dto The DTO containing the WG ID and the mappings of inventory items to WG members.
+     * @param settlementMode The way the financial obligations between the members are settled.
+     * @return A DissolveResultDto containing lists of financial obligations and inventory values.
+     * @throws InvalidRequestException if an inventory item or member does not belong to the WG.
+     */
+    @Transactional(readOnly = true)
+    public DissolveResultDto dissolve(DissolveInventoryDto dto, SettlementMode settlementMode) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return calculate(dto, settlementMode);
+        } finally {
+            sample.stop(dissolveTimer(settlementMode, "bound"));
+        }
+    }
+
+    /**
+     * Calculates the financial obligations and current values of inventory items of a bound dissolution request.
+     *
+     * @param dto The DTO containing the WG ID and the mappings of inventory items to WG members.
+     * @param settlementMode The way the financial obligations between the members are settled.
+     * @return A DissolveResultDto containing lists of financial obligations and inventory values.
+     */
+    private DissolveResultDto calculate(DissolveInventoryDto dto, SettlementMode settlementMode) {
+        Long wgId = requireWgId(dto);
+        Set<Long> inventarIds = new HashSet<>();
+        collectInventarIds(dto, inventarIds);
+        Dissolution dissolution = prepare(dto, loadMemberIds(wgId), loadInventare(inventarIds));
+        return dissolution.calculate(valuationService.forDate(LocalDate.now(), DepreciationMethod.DECLINING_BALANCE), settlementMode);
+    }
+
+    /**
+     * Loads and checks the members and inventory items of a batch of dissolution requests.
+     * The members of all WGs are loaded with one query and the inventory items in chunks, so the number
+     * of queries does not grow with the number of WGs. The requests are checked completely before
+     * any of them is calculated, so an invalid batch is rejected as a whole.
+     *
+     * @param dtos The dissolution requests, each containing a WG ID and the mappings of inventory items to WG members.
+     * @return The prepared dissolutions in the order of the requests.
+     * @throws InvalidRequestException if a request is malformed or an inventory item or member does not belong to its WG.
+     */
+    @Transactional(readOnly = true)
+    public List<Dissolution> prepareBatch(List<DissolveInventoryDto> dtos) {
+        Set<Long> wgIds = new LinkedHashSet<>();
+        Set<Long> inventarIds = new HashSet<>();
+        for (DissolveInventoryDto dto : dtos) {
+            wgIds.add(requireWgId(dto));
+            collectInventarIds(dto, inventarIds);
+        }
+
+        Map<Long, List<Long>> memberIdsByWg = new HashMap<>();
+        for (MitgliedDto mitglied : mitgliedService.getDtosByWgIds(wgIds)) {
+            memberIdsByWg.computeIfAbsent(mitglied.getWgId(), wgId -> new ArrayList<>()).add(mitglied.getId());
+        }
+        Map<Long, Inventar> inventare = loadInventare(inventarIds);
+
+        List<Dissolution> dissolutions = new ArrayList<>(dtos.size());
+        for (DissolveInventoryDto dto : dtos) {
+            List<Long> memberIds = memberIdsByWg.getOrDefault(dto.getWgId(), List.of());
+            dissolutions.add(prepare(dto, memberIds.stream().mapToLong(Long::longValue).toArray(), inventare));
+        }
+        return dissolutions;
+    }
+
+    /**
+     * Calculates the prepared dissolutions in parallel on the bounded fork-join pool and writes every result
+     * as one line of JSON as soon as it is finished, so the results are not in the order of the requests.
+     * The calculation needs no database access, and the results already written stay valid if the client disconnects.
+     * If the calculation of a WG fails, a line with its WG ID and an error message is written instead,
+     * because the status of the response was already sent with the first line, and the other WGs are still written.
+     *
+     * @param dissolutions The dissolutions prepared by prepareBatch.
+     * @param settlementMode The way the financial obligations between the members are settled.
+     * @param out The output stream to write to.
+     * @throws IOException if writing fails.
+     */
+    public void writeBatch(List<Dissolution> dissolutions, SettlementMode settlementMode, OutputStream out) throws IOException {
+        CompletionService<DissolveResultDto> completionService = new ExecutorCompletionService<>(dissolvePool);
+        List<Future<DissolveResultDto>> futures = new ArrayList<>(dissolutions.size());
+        Map<Future<DissolveResultDto>, Long> wgIds = new HashMap<>();
+        for (Dissolution dissolution : dissolutions) {
+            Future<DissolveResultDto> future = completionService.submit(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    return dissolution.calculate(valuationService.forDate(LocalDate.now(), DepreciationMethod.DECLINING_BALANCE), settlementMode);
+                } finally {
+                    sample.stop(dissolveTimer(settlementMode, "batch"));
+                }
+            });
+            futures.add(future);
+            wgIds.put(future, dissolution.wgId);
+        }
+
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            for (int i = 0; i < futures.size(); i++) {
+                Future<DissolveResultDto> future = completionService.take();
+                try {
+                    generator.writeObject(future.get());
+                } catch (ExecutionException e) {
+                    Long wgId = wgIds.get(future);
+                    log.error("Calculating the dissolution of WG {} failed", wgId, e.getCause());
+                    generator.writeStartObject();
+                    generator.writeNumberField("wgId", wgId);
+                    generator.writeStringField("error", "Calculating the dissolution failed");
+                    generator.writeEndObject();
+                }
+                generator.writeRaw('\n');
+                generator.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calculating the dissolutions", e);
+        } finally {
+            // stop calculating results that can no longer be written
+            for (Future<DissolveResultDto> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Checks the mappings of a dissolution request against the members and the loaded inventory items of its WG.
+     *
+     * @param dto The DTO containing the WG ID and the mappings of inventory items to WG members.
+     * @param memberIds The IDs of all members of the WG.
+     * @param inventare The loaded inventory items by their ID, which may contain items of other requests.
+     * @return The prepared dissolution.
+     * @throws InvalidRequestException if an inventory item or member does not belong to the WG.
+     */
+    private Dissolution prepare(DissolveInventoryDto dto, long[] memberIds, Map<Long, Inventar> inventare) {
+        Long wgId = dto.getWgId();
+        List<DissolveInventoryDto.InventoryMemberMapping> mappings = dto.getInventoryMappings() != null ? dto.getInventoryMappings() : List.of();
+        DissolveAccumulator accumulator = new DissolveAccumulator(memberIds);
+        Inventar[] mappedInventare = new Inventar[mappings.size()];
+        int[] slots = new int[mappings.size()];
+        for (int i = 0; i < mappings.size(); i++) {
+            DissolveInventoryDto.InventoryMemberMapping mapping = mappings.get(i);
+            mappedInventare[i] = checkInventar(inventare.get(mapping.getInventarId()), mapping.getInventarId(), wgId);
+        }
+        for (int i = 0; i < mappings.size(); i++) {
+            DissolveInventoryDto.InventoryMemberMapping mapping = mappings.get(i);
+            slots[i] = mapping.getMitgliedId() != null ? accumulator.slotOf(mapping.getMitgliedId()) : -1;
+            if (slots[i] < 0) {
+                throw new InvalidRequestException("Mitglied " + mapping.getMitgliedId() + " does not belong to WG " + wgId);
+            }
+        }
+        return new Dissolution(wgId, accumulator, mappedInventare, slots);
+    }
+
+    /**
+     * Returns the WG ID of a dissolution request.
+     *
+     * @param dto The dissolution request.
+     * @return The WG ID.
+     * @throws InvalidRequestException if the WG ID is missing.
+     */
+    private Long requireWgId(DissolveInventoryDto dto) {
+        if (dto.getWgId() == null) {
+            throw new InvalidRequestException("WG id is required");
+        }
+        return dto.getWgId();
+    }
+
+    /**
+     * Adds the inventory IDs of the mappings of a dissolution request to the given set.
+     *
+     * @param dto The dissolution request.
+     * @param inventarIds The set the inventory IDs are added to.
+     * @throws InvalidRequestException if a mapping has no inventory ID.
+     */
+    private void collectInventarIds(DissolveInventoryDto dto, Set<Long> inventarIds) {
+        if (dto.getInventoryMappings() == null) {
+            return;
+        }
+        for (DissolveInventoryDto.InventoryMemberMapping mapping : dto.getInventoryMappings()) {
+            if (mapping.getInventarId() == null) {
+                throw new InvalidRequestException("Inventar id is required");
+            }
+            inventarIds.add(mapping.getInventarId());
+        }
+    }
+
+    /**
+     * Calculates the financial obligations of a dissolution request that is read incrementally from a JSON stream.
+     * The request has the same structure as DissolveInventoryDto, but "wgId" has to precede "inventoryMappings".
+     * Every mapping is folded into the running debt aggregation as it arrives, and the inventory items are loaded
+     * in chunks, so the memory used depends on the number of WG members rather than on the size of the payload.
+     * For the same reason the result does not list the values of the single inventory items.
+     *
+     * @param body The JSON request body.
+     * @param settlementMode The way the financial obligations between the members are settled.
+     * @return A DissolveResultDto containing the financial obligations and an empty list of inventory values.
+     * @throws InvalidRequestException if the request is malformed or an inventory item or member does not belong to the WG.
+     * @throws IOException if the request body cannot be read.
+     */
+    public DissolveResultDto dissolveStream(InputStream body, SettlementMode settlementMode) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return calculateStream(body, settlementMode);
+        } finally {
+            sample.stop(dissolveTimer(settlementMode, "stream"));
+        }
+    }
+
+    /**
+     * Calculates the financial obligations of a dissolution request read incrementally from a JSON stream.
+     *
+     * @param body The JSON request body.
+     * @param settlementMode The way the financial obligations between the members are settled.
+     * @return A DissolveResultDto containing the financial obligations and an empty list of inventory values.
+     * @throws IOException if the request body cannot be read.
+     */
+    private DissolveResultDto calculateStream(InputStream body, SettlementMode settlementMode) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidRequestException("Expected a JSON object");
+            }
+            Long wgId = null;
+            DissolveAccumulator accumulator = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("wgId".equals(field)) {
+                    wgId = readId(parser, "WG id");
+                    accumulator = new DissolveAccumulator(loadMemberIds(wgId));
+                } else if ("inventoryMappings".equals(field)) {
+                    if (accumulator == null) {
+                        throw new InvalidRequestException("wgId has to precede inventoryMappings");
+                    }
+                    foldMappings(parser, wgId, accumulator);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (accumulator == null) {
+                throw new InvalidRequestException("WG id is required");
+            }
+            return new DissolveResultDto(wgId, settle(accumulator, settlementMode), List.of());
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Malformed dissolution request: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Reads the inventory mappings array from the parser and folds every mapping into the accumulator,
+     * loading the mapped inventory items chunk by chunk.
+     *
+     * @param parser The parser positioned at the start of the inventory mappings array.
+     * @param wgId The ID of the WG being dissolved.
+     * @param accumulator The accumulator of the WG's debts.
+     * @throws IOException if the request body cannot be read.
+     */
+    private void foldMappings(JsonParser parser, Long wgId, DissolveAccumulator accumulator) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new InvalidRequestException("inventoryMappings has to be an array");
+        }
+        ValuationService.Valuation valuation = valuationService.forDate(LocalDate.now(), DepreciationMethod.DECLINING_BALANCE);
+        long[] inventarIds = new long[CHUNK_SIZE];
+        int[] slots = new int[CHUNK_SIZE];
+        int size = 0;
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Long inventarId = null;
+            Long mitgliedId = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("inventarId".equals(field)) {
+                    inventarId = readId(parser, "Inventar id");
+                } else if ("mitgliedId".equals(field)) {
+                    mitgliedId = readId(parser, "Mitglied id");
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (inventarId == null) {
+                throw new InvalidRequestException("Inventar id is required");
+            }
+            int slot = mitgliedId != null ? accumulator.slotOf(mitgliedId) : -1;
+            if (slot < 0) {
+                throw new InvalidRequestException("Mitglied " + mitgliedId + " does not belong to WG " + wgId);
+            }
+
+            inventarIds[size] = inventarId;
+            slots[size] = slot;
+            size++;
+            if (size == CHUNK_SIZE) {
+                foldChunk(inventarIds, slots, size, wgId, accumulator, valuation);
+                size = 0;
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new InvalidRequestException("inventoryMappings has to contain objects");
+        }
+        foldChunk(inventarIds, slots, size, wgId, accumulator, valuation);
+    }
+
+    /**
+     * Loads the inventory items of a chunk of mappings with one query and adds their current values to the accumulator.
+     *
+     * @param inventarIds The inventory IDs of the chunk.
+     * @param slots The member slots of the chunk.
+     * @param size The number of mappings in the chunk.
+     * @param wgId The ID of the WG being dissolved.
+     * @param accumulator The accumulator of the WG's debts.
+     * @param valuation The valuation used to calculate the current values.
+     */
+    private void foldChunk(long[] inventarIds, int[] slots, int size, Long wgId, DissolveAccumulator accumulator, ValuationService.Valuation valuation) {
+        if (size == 0) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            ids.add(inventarIds[i]);
+        }
+        Map<Long, Inventar> inventare = loadInventare(ids);
+        for (int i = 0; i < size; i++) {
+            accumulator.add(slots[i], valuation.currentValue(checkInventar(inventare.get(inventarIds[i]), inventarIds[i], wgId)));
+        }
+    }
+
+    /**
+     * Reads a numeric ID from the current token of the parser.
+     *
+     * @param parser The parser positioned at the ID value.
+     * @param name The name of the ID used in the error message.
+     * @return The ID.
+     * @throws IOException if the request body cannot be read.
+     */
+    private Long readId(JsonParser parser, String name) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+            throw new InvalidRequestException(name + " is required");
+        }
+        return parser.getLongValue();
+    }
+
+    /**
+     * Returns the timer of dissolution requests with the given settlement mode and kind of input.
+     *
+     * @param settlementMode The way the financial obligations between the members are settled.
+     * @param input The kind of input, "bound" for a DTO or "stream" for a streamed request body.
+     * @return The timer, registered on first use.
+     */
+    private Timer dissolveTimer(SettlementMode settlementMode, String input) {
+        return Timer.builder(DISSOLVE_TIMER)
+                .description("Time spent calculating the financial obligations of a WG dissolution")
+                .tag("mode", settlementMode.name().toLowerCase())
+                .tag("input", input)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Settles the debts of the accumulator in the given settlement mode.
+     *
+     * @param accumulator The accumulator of the WG's debts.
+     * @param settlementMode The way the financial obligations between the members are settled.
+     * @return The resulting financial obligations.
+     */
+    private static List<DissolveResultDto.MemberFinancialObligation> settle(DissolveAccumulator accumulator, SettlementMode settlementMode) {
+        return settlementMode == SettlementMode.NET ? accumulator.toNetObligations() : accumulator.toObligations();
+    }
+
+    /**
+     * Loads the IDs of all members of the WG.
+     *
+     * @param wgId The ID of the WG.
+     * @return The member IDs of the WG.
+     */
+    private long[] loadMemberIds(Long wgId) {
+        List<Mitglied> members = mitgliedService.getAllByWgId(wgId);
+        long[] memberIds = new long[members.size()];
+        for (int i = 0; i < memberIds.length; i++) {
+            memberIds[i] = members.get(i).getId();
+        }
+        return memberIds;
+    }
+
+    /**
+     * Loads the inventory items with the given IDs with one query per chunk of CHUNK_SIZE IDs.
+     *
+     * @param inventarIds The IDs of the inventory items.
+     * @return The loaded inventory items by their ID; unknown IDs are skipped.
+     */
+    private Map<Long, Inventar> loadInventare(Set<Long> inventarIds) {
+        Map<Long, Inventar> inventare = new HashMap<>(inventarIds.size() * 2);
+        List<Long> chunk = new ArrayList<>(Math.min(inventarIds.size(), CHUNK_SIZE));
+        for (Long inventarId : inventarIds) {
+            chunk.add(inventarId);
+            if (chunk.size() == CHUNK_SIZE) {
+                for (Inventar inventar : inventarService.getAllById(chunk)) {
+                    inventare.put(inventar.getId(), inventar);
+                }
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            for (Inventar inventar : inventarService.getAllById(chunk)) {
+                inventare.put(inventar.getId(), inventar);
+            }
+        }
+        return inventare;
+    }
+
+    /**
+     * Checks that a loaded inventory item exists and belongs to the WG being dissolved.
+     *
+     * @param inventar The loaded inventory item, or null if it does not exist.
+     * @param inventarId The requested ID of the inventory item.
+     * @param wgId The ID of the WG being dissolved.
+     * @return The inventory item.
+     * @throws InvalidRequestException if the inventory item does not exist or belongs to another WG.
+     */
+    private Inventar checkInventar(Inventar inventar, Long inventarId, Long wgId) {
+        if (inventar == null) {
+            throw new InvalidRequestException("Inventar " + inventarId + " does not exist");
+        }
+        if (!wgId.equals(inventar.getWg().getId())) {
+            throw new InvalidRequestException("Inventar " + inventarId + " does not belong to WG " + wgId);
+        }
+        return inventar;
+    }
+
+    /**
+     * A dissolution request whose members and inventory items are loaded and checked, ready to be calculated.
+     * Preparing and calculating are separate steps, so a batch is checked completely before any result
+     * is written and the calculation can run in parallel without a database connection.
+     */
+    public static final class Dissolution {
+
+        private final Long wgId;
+
+        private final DissolveAccumulator accumulator;
+
+        private final Inventar[] inventare;
+
+        private final int[] slots;
+
+        private Dissolution(Long wgId, DissolveAccumulator accumulator, Inventar[] inventare, int[] slots) {
+            this.wgId = wgId;
+            this.accumulator = accumulator;
+            this.inventare = inventare;
+            this.slots = slots;
+        }
+
+        /**
+         * Calculates the current values of the mapped inventory items and the resulting financial obligations.
+         * A dissolution is calculated once, because the values are added to its accumulator.
+         *
+         * @param valuation The valuation used to calculate the current values, which must not be shared between threads.
+         * @param settlementMode The way the financial obligations between the members are settled.
+         * @return A DissolveResultDto containing lists of financial obligations and inventory values.
+         */
+        private DissolveResultDto calculate(ValuationService.Valuation valuation, SettlementMode settlementMode) {
+            List<DissolveResultDto.InventoryValue> inventoryValues = new ArrayList<>(inventare.length);
+            for (int i = 0; i < inventare.length; i++) {
+                double currentValue = valuation.currentValue(inventare[i]);
+                inventoryValues.add(new DissolveResultDto.InventoryValue(inventare[i].getId(), inventare[i].getPreis(), currentValue));
+                accumulator.add(slots[i], currentValue);
+            }
+            return new DissolveResultDto(wgId, settle(accumulator, settlementMode), inventoryValues);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.wgkompass.services;
+
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import com.example.wgkompass.utils.DtoMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The ExportService class writes all entities of a type as newline-delimited JSON (NDJSON).
+ * The entities are streamed from the database and written one by one, and the persistence context
+ * is cleared periodically, so the heap used stays constant regardless of the number of rows.
+ */
+@Service
+public class ExportService {
+
+    /**
+     * The number of written entities after which the persistence context is cleared and the output is flushed.
+     */
+    private static final int CLEAR_INTERVAL = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    /**
+     * Writes all WGs as NDJSON to the given output stream.
+     *
+     * @param out The output stream to write to.
+     * @throws IOException if writing fails.
+     */
+    @Transactional(readOnly = true)
+    public void exportWGs(OutputStream out) throws IOException {
+        write(wgRepository.streamAll(), DtoMapper::toWGDto, out);
+    }
+
+    /**
+     * Writes all Mitglieder (members) as NDJSON to the given output stream.
+     *
+     * @param out The output stream to write to.
+     * @throws IOException if writing fails.
+     */
+    @Transactional(readOnly = true)
+    public void exportMitglieder(OutputStream out) throws IOException {
+        write(mitgliedRepository.streamAll(), DtoMapper::toMitgliedDto, out);
+    }
+
+    /**
+     * Writes all Inventar (inventory) items as NDJSON to the given output stream.
+     *
+     * @param out The output stream to write to.
+     * @throws IOException if writing fails.
+     */
+    @Transactional(readOnly = true)
+    public void exportInventar(OutputStream out) throws IOException {
+        write(inventarRepository.streamAll(), DtoMapper::toInventarDto, out);
+    }
+
+    /**
+     * Writes all Aufgaben (tasks) as NDJSON to the given output stream.
+     *
+     * @param out The output stream to write to.
+     * @throws IOException if writing fails.
+     */
+    @Transactional(readOnly = true)
+    public void exportAufgaben(OutputStream out) throws IOException {
+        write(aufgabeRepository.streamAll(), DtoMapper::toAufgabeDto, out);
+    }
+
+    /**
+     * Converts every streamed entity to its DTO and writes it as one line of JSON.
+     *
+     * @param entities The stream of entities, which is closed afterwards.
+     * @param toDto The conversion of an entity to its DTO.
+     * @param out The output stream to write to.
+     * @throws IOException if writing fails.
+     */
+    private <T> void write(Stream<T> entities, Function<T, ?> toDto, OutputStream out) throws IOException {
+        try (Stream<T> stream = entities;
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            int written = 0;
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(toDto.apply(iterator.next()));
+                if (++written % CLEAR_INTERVAL == 0) {
+                    // detach the written entities so the persistence context does not grow with the export
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            if (written > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+}
@@ -1,12 +1,29 @@
 package com.example.wgkompass.services;
 
+import com.example.wgkompass.dto.InventarDto;
+import com.example.wgkompass.exception.InvalidRequestException;
 import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.WG;
 import com.example.wgkompass.repositories.InventarRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * The InventarService class provides business logic and operations for Inventar (inventory) entities.
@@ -18,21 +35,43 @@ public class InventarService {
     @Autowired
     private InventarRepository inventarRepository;
 
+    @Autowired
+    private ValuationService valuationService;
+
+    @Autowired
+    private WGStatistikService wgStatistikService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Retrieves an Inventar entity by its ID.
      *
      * @param id The ID of the Inventar to be retrieved.
      * @return An Optional containing the Inventar if found, or an empty Optional otherwise.
      */
+    @Transactional(readOnly = true)
     public Optional<Inventar> getById(Long id) {
         return inventarRepository.findById(id);
     }
 
+    /**
+     * Retrieves all Inventar entities with the given IDs in a single query.
+     *
+     * @param ids The IDs of the Inventar entities to be retrieved.
+     * @return A List of the Inventar entities found; unknown IDs are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<Inventar> getAllById(Iterable<Long> ids) {
+        return inventarRepository.findAllById(ids);
+    }
+
     /**
      * Retrieves all Inventar entities.
      *
      * @return An Iterable of all Inventar entities.
      */
+    @Transactional(readOnly = true)
     public Iterable<Inventar> getAll() {
         return inventarRepository.findAll();
     }
@@ -43,19 +82,223 @@ public class InventarService {
      * @param wgId The ID of the WG.
      * @return A List of Inventar entities associated with the WG.
      */
+    @Transactional(readOnly = true)
     public List<Inventar> getAllByWgId(Long wgId) {
         return inventarRepository.findAllByWgId(wgId);
     }
 
+    /**
+     * Retrieves a Inventar as DTO by its ID, selecting only the DTO columns.
+     *
+     * @param id The ID of the Inventar to be retrieved.
+     * @return An Optional containing the InventarDto if found, or an empty Optional otherwise.
+     */
+    @Transactional(readOnly = true)
+    public Optional<InventarDto> getDtoById(Long id) {
+        return inventarRepository.findDtoById(id);
+    }
+
+    /**
+     * Retrieves all Inventar entries as DTOs ordered by ID, selecting only the DTO columns.
+     *
+     * @return A List of all InventarDto.
+     */
+    @Transactional(readOnly = true)
+    public List<InventarDto> getAllDtos() {
+        return inventarRepository.findAllDtos();
+    }
+
+    /**
+     * Retrieves all Inventar entries of a specific WG as DTOs ordered by ID, selecting only the DTO columns.
+     *
+     * @param wgId The ID of the WG.
+     * @return A List of InventarDto associated with the WG.
+     */
+    @Transactional(readOnly = true)
+    public List<InventarDto> getDtosByWgId(Long wgId) {
+        return inventarRepository.findDtosByWgId(wgId);
+    }
+
+    /**
+     * Retrieves a page of Inventar entries as DTOs with an ID greater than the given cursor, ordered by ID.
+     *
+     * @param after The cursor; only entries with a greater ID are returned.
+     * @param limit The maximum number of entries to return.
+     * @return A List of at most limit InventarDto.
+     */
+    @Transactional(readOnly = true)
+    public List<InventarDto> getDtoPage(long after, int limit) {
+        return inventarRepository.findDtosAfter(after, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a page of Inventar entries of a specific WG as DTOs with an ID greater than the given cursor, ordered by ID.
+     *
+     * @param wgId The ID of the WG.
+     * @param after The cursor; only entries with a greater ID are returned.
+     * @param limit The maximum number of entries to return.
+     * @return A List of at most limit InventarDto associated with the WG.
+     */
+    @Transactional(readOnly = true)
+    public List<InventarDto> getDtoPageByWgId(Long wgId, long after, int limit) {
+        return inventarRepository.findDtosByWgIdAfter(wgId, after, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves the version of a Inventar without loading it.
+     *
+     * @param id The ID of the Inventar.
+     * @return An Optional containing the version if the Inventar exists, or an empty Optional otherwise.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(Long id) {
+        return inventarRepository.findVersionById(id);
+    }
+
+    /**
+     * Retrieves a summary of all Inventar entries of a specific WG that changes whenever one of them changes.
+     *
+     * @param wgId The ID of the WG.
+     * @return The version summary of the Inventar entries of the WG.
+     */
+    @Transactional(readOnly = true)
+    public String getListVersionByWgId(Long wgId) {
+        return inventarRepository.findListVersionByWgId(wgId);
+    }
+
     /**
      * Saves an Inventar entity to the repository.
      * If the Inventar already exists, it will be updated; otherwise, a new Inventar will be created.
+     * The valuation snapshot of the Inventar is refreshed before it is saved, and the counters of the previous
+     * and the current WG are updated in the same transaction.
      *
      * @param inventar The Inventar entity to be saved.
      * @return The saved Inventar entity.
      */
+    @Transactional
     public Inventar save(Inventar inventar) {
-        return inventarRepository.save(inventar);
+        WGStatistikService.Changes changes = new WGStatistikService.Changes();
+        Inventar stored = inventar.getId() != null ? entityManager.find(Inventar.class, inventar.getId()) : null;
+        if (stored != null) {
+            changes.inventar(WGStatistikService.wgIdOf(stored.getWg()), stored.getPreis(), stored.getAktuellerWert(), null, null, null);
+        }
+        valuationService.refreshSnapshots(List.of(inventar));
+        Inventar saved = inventarRepository.save(inventar);
+
+        changes.inventar(null, null, null, WGStatistikService.wgIdOf(saved.getWg()), saved.getPreis(), saved.getAktuellerWert());
+        wgStatistikService.apply(changes);
+        return saved;
+    }
+
+    /**
+     * Applies the non-null fields of the DTO to an Inventar with a single UPDATE statement, without loading the entity. Related entities are referenced by their ID only, so they are not loaded either.
+     * The version is incremented, so ETags of the Inventar change as with a regular update.
+     * A change of the price, purchase date or depreciation rate invalidates the valuation snapshot,
+     * which is recalculated on the next refresh. A change of the price or a move to another WG also updates
+     * the counters of the affected WGs: the previous WG, price and snapshot value are read first with one
+     * scalar query that locks the row, and the counters are changed with one UPDATE per affected WG.
+     *
+     * @param id The ID of the Inventar to be changed.
+     * @param changes The DTO holding the fields to change; null fields are left unchanged.
+     * @return true if the Inventar exists and was changed, false otherwise.
+     * @throws InvalidRequestException if the DTO contains no field to change.
+     */
+    @Transactional
+    public boolean patch(Long id, InventarDto changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Inventar> update = cb.createCriteriaUpdate(Inventar.class);
+        Root<Inventar> root = update.from(Inventar.class);
+        boolean changed = false;
+        if (changes.getName() != null) {
+            update.set(root.get("name"), changes.getName());
+            changed = true;
+        }
+        if (changes.getPreis() != null) {
+            update.set(root.get("preis"), changes.getPreis());
+            changed = true;
+        }
+        if (changes.getKaufdatum() != null) {
+            update.set(root.get("kaufdatum"), changes.getKaufdatum());
+            changed = true;
+        }
+        if (changes.getAbschreibungssatz() != null) {
+            update.set(root.get("abschreibungssatz"), changes.getAbschreibungssatz());
+            changed = true;
+        }
+        if (changes.getWgId() != null) {
+            update.set(root.get("wg"), entityManager.getReference(WG.class, changes.getWgId()));
+            changed = true;
+        }
+        if (!changed) {
+            throw new InvalidRequestException("No fields to update");
+        }
+        if (changes.getPreis() != null || changes.getKaufdatum() != null || changes.getAbschreibungssatz() != null) {
+            update.set(root.<LocalDate>get("bewertungsdatum"), cb.nullLiteral(LocalDate.class));
+        }
+        Object[] stored = null;
+        if (changes.getPreis() != null || changes.getWgId() != null) {
+            List<Object[]> rows = entityManager.createQuery("select i.wg.id, i.preis, i.aktuellerWert from Inventar i where i.id = :id", Object[].class)
+                    .setParameter("id", id)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList();
+            if (rows.isEmpty()) {
+                return false;
+            }
+            stored = rows.get(0);
+        }
+        Long fromWgId = stored != null ? (Long) stored[0] : null;
+        Double fromPreis = stored != null ? (Double) stored[1] : null;
+        Double aktuellerWert = stored != null ? (Double) stored[2] : null;
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.where(cb.equal(root.get("id"), id));
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            return false;
+        }
+        if (stored != null) {
+            // the stored snapshot value stays in the row until the next refresh, so it moves along with the item
+            WGStatistikService.Changes statistikChanges = new WGStatistikService.Changes();
+            statistikChanges.inventar(fromWgId, fromPreis, aktuellerWert,
+                    changes.getWgId() != null ? changes.getWgId() : fromWgId,
+                    changes.getPreis() != null ? changes.getPreis() : fromPreis, aktuellerWert);
+            wgStatistikService.apply(statistikChanges);
+        }
+        return true;
     }
 
+    /**
+     * Saves many Inventar entities in one transaction, so their inserts and updates are sent in JDBC batches.
+     * Entities with an ID update the existing Inventar. The existing entities are loaded with one query and
+     * their versions are compared with the given ones, so a concurrent change is rejected instead of overwritten. The valuation snapshots are refreshed,
+     * and the counters of all affected WGs are updated with one statement per WG.
+     *
+     * @param inventare The Inventar entities to be saved.
+     * @return The saved Inventar entities.
+     * @throws InvalidRequestException if an Inventar with one of the given IDs does not exist.
+     * @throws ObjectOptimisticLockingFailureException if an Inventar was changed since the given version.
+     */
+    @Transactional
+    public List<Inventar> saveAll(List<Inventar> inventare) {
+        List<Long> ids = inventare.stream().map(Inventar::getId).filter(Objects::nonNull).toList();
+        Map<Long, Inventar> existing = inventarRepository.findAllById(ids).stream().collect(Collectors.toMap(Inventar::getId, Function.identity()));
+        WGStatistikService.Changes changes = new WGStatistikService.Changes();
+        for (Inventar inventar : inventare) {
+            if (inventar.getId() != null) {
+                Inventar stored = existing.get(inventar.getId());
+                if (stored == null) {
+                    throw new InvalidRequestException("Inventar " + inventar.getId() + " does not exist");
+                }
+                if (inventar.getVersion() != stored.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(Inventar.class, inventar.getId());
+                }
+                changes.inventar(WGStatistikService.wgIdOf(stored.getWg()), stored.getPreis(), stored.getAktuellerWert(), null, null, null);
+            }
+        }
+        valuationService.refreshSnapshots(inventare);
+        for (Inventar inventar : inventare) {
+            changes.inventar(null, null, null, WGStatistikService.wgIdOf(inventar.getWg()), inventar.getPreis(), inventar.getAktuellerWert());
+        }
+        List<Inventar> saved = inventarRepository.saveAll(inventare);
+        wgStatistikService.apply(changes);
+        return saved;
+    }
 }
\ No newline at end of file
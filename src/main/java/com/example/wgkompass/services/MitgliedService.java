@@ -1,12 +1,29 @@
 package com.example.wgkompass.services;
 
+import com.example.wgkompass.dto.MitgliedDto;
+import com.example.wgkompass.exception.InvalidRequestException;
 import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
 import com.example.wgkompass.repositories.MitgliedRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * The MitgliedService class provides business logic and operations for Mitglied (member) entities.
@@ -18,12 +35,19 @@ public class MitgliedService {
     @Autowired
     private MitgliedRepository mitgliedRepository;
 
+    @Autowired
+    private WGStatistikService wgStatistikService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Retrieves a Mitglied entity by its ID.
      *
      * @param id The ID of the Mitglied to be retrieved.
      * @return An Optional containing the Mitglied if found, or an empty Optional otherwise.
      */
+    @Transactional(readOnly = true)
     public Optional<Mitglied> getById(Long id) {
         return mitgliedRepository.findById(id);
     }
@@ -33,6 +57,7 @@ public class MitgliedService {
      *
      * @return An Iterable of all Mitglied entities.
      */
+    @Transactional(readOnly = true)
     public Iterable<Mitglied> getAll() {
         return mitgliedRepository.findAll();
     }
@@ -43,19 +68,209 @@ public class MitgliedService {
      * @param wgId The ID of the WG.
      * @return A List of Mitglied entities associated with the WG.
      */
+    @Transactional(readOnly = true)
     public List<Mitglied> getAllByWgId(Long wgId) {
         return mitgliedRepository.findAllByWgId(wgId);
     }
 
+    /**
+     * Retrieves a Mitglied as DTO by its ID, selecting only the DTO columns.
+     *
+     * @param id The ID of the Mitglied to be retrieved.
+     * @return An Optional containing the MitgliedDto if found, or an empty Optional otherwise.
+     */
+    @Transactional(readOnly = true)
+    public Optional<MitgliedDto> getDtoById(Long id) {
+        return mitgliedRepository.findDtoById(id);
+    }
+
+    /**
+     * Retrieves all Mitglied entries as DTOs ordered by ID, selecting only the DTO columns.
+     *
+     * @return A List of all MitgliedDto.
+     */
+    @Transactional(readOnly = true)
+    public List<MitgliedDto> getAllDtos() {
+        return mitgliedRepository.findAllDtos();
+    }
+
+    /**
+     * Retrieves all Mitglied entries of a specific WG as DTOs ordered by ID, selecting only the DTO columns.
+     *
+     * @param wgId The ID of the WG.
+     * @return A List of MitgliedDto associated with the WG.
+     */
+    @Transactional(readOnly = true)
+    public List<MitgliedDto> getDtosByWgId(Long wgId) {
+        return mitgliedRepository.findDtosByWgId(wgId);
+    }
+
+    /**
+     * Retrieves the Mitglied entries of several WGs as DTOs ordered by ID with a single query.
+     *
+     * @param wgIds The IDs of the WGs.
+     * @return A List of MitgliedDto associated with any of the WGs.
+     */
+    @Transactional(readOnly = true)
+    public List<MitgliedDto> getDtosByWgIds(Collection<Long> wgIds) {
+        return mitgliedRepository.findDtosByWgIdIn(wgIds);
+    }
+
+    /**
+     * Retrieves a page of Mitglied entries as DTOs with an ID greater than the given cursor, ordered by ID.
+     *
+     * @param after The cursor; only entries with a greater ID are returned.
+     * @param limit The maximum number of entries to return.
+     * @return A List of at most limit MitgliedDto.
+     */
+    @Transactional(readOnly = true)
+    public List<MitgliedDto> getDtoPage(long after, int limit) {
+        return mitgliedRepository.findDtosAfter(after, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves a page of Mitglied entries of a specific WG as DTOs with an ID greater than the given cursor, ordered by ID.
+     *
+     * @param wgId The ID of the WG.
+     * @param after The cursor; only entries with a greater ID are returned.
+     * @param limit The maximum number of entries to return.
+     * @return A List of at most limit MitgliedDto associated with the WG.
+     */
+    @Transactional(readOnly = true)
+    public List<MitgliedDto> getDtoPageByWgId(Long wgId, long after, int limit) {
+        return mitgliedRepository.findDtosByWgIdAfter(wgId, after, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves the version of a Mitglied without loading it.
+     *
+     * @param id The ID of the Mitglied.
+     * @return An Optional containing the version if the Mitglied exists, or an empty Optional otherwise.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(Long id) {
+        return mitgliedRepository.findVersionById(id);
+    }
+
+    /**
+     * Retrieves a summary of all Mitglied entries of a specific WG that changes whenever one of them changes.
+     *
+     * @param wgId The ID of the WG.
+     * @return The version summary of the Mitglied entries of the WG.
+     */
+    @Transactional(readOnly = true)
+    public String getListVersionByWgId(Long wgId) {
+        return mitgliedRepository.findListVersionByWgId(wgId);
+    }
+
     /**
      * Saves a Mitglied entity to the repository.
      * If the Mitglied already exists, it will be updated; otherwise, a new Mitglied will be created.
+     * The counters of the previous and the current WG are updated in the same transaction.
      *
      * @param mitglied The Mitglied entity to be saved.
      * @return The saved Mitglied entity.
      */
+    @Transactional
     public Mitglied save(Mitglied mitglied) {
-        return mitgliedRepository.save(mitglied);
+        Mitglied stored = mitglied.getId() != null ? entityManager.find(Mitglied.class, mitglied.getId()) : null;
+        Long fromWgId = stored != null ? WGStatistikService.wgIdOf(stored.getWg()) : null;
+        Mitglied saved = mitgliedRepository.save(mitglied);
+
+        WGStatistikService.Changes changes = new WGStatistikService.Changes();
+        changes.mitglied(fromWgId, WGStatistikService.wgIdOf(saved.getWg()));
+        wgStatistikService.apply(changes);
+        return saved;
+    }
+
+    /**
+     * Applies the non-null fields of the DTO to a Mitglied with a single UPDATE statement, without loading the entity. Related entities are referenced by their ID only, so they are not loaded either.
+     * The version is incremented, so ETags of the Mitglied change as with a regular update.
+     * A move to another WG also updates the counters of both WGs: the previous WG ID is read first with one
+     * scalar query that locks the row, and the counters are changed with one UPDATE per affected WG.
+     *
+     * @param id The ID of the Mitglied to be changed.
+     * @param changes The DTO holding the fields to change; null fields are left unchanged.
+     * @return true if the Mitglied exists and was changed, false otherwise.
+     * @throws InvalidRequestException if the DTO contains no field to change.
+     */
+    @Transactional
+    public boolean patch(Long id, MitgliedDto changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Mitglied> update = cb.createCriteriaUpdate(Mitglied.class);
+        Root<Mitglied> root = update.from(Mitglied.class);
+        boolean changed = false;
+        if (changes.getVorname() != null) {
+            update.set(root.get("vorname"), changes.getVorname());
+            changed = true;
+        }
+        if (changes.getNachname() != null) {
+            update.set(root.get("nachname"), changes.getNachname());
+            changed = true;
+        }
+        if (changes.getWgId() != null) {
+            update.set(root.get("wg"), entityManager.getReference(WG.class, changes.getWgId()));
+            changed = true;
+        }
+        if (!changed) {
+            throw new InvalidRequestException("No fields to update");
+        }
+        List<Long> stored = null;
+        if (changes.getWgId() != null) {
+            stored = entityManager.createQuery("select m.wg.id from Mitglied m where m.id = :id", Long.class)
+                    .setParameter("id", id)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList();
+            if (stored.isEmpty()) {
+                return false;
+            }
+        }
+        Long fromWgId = stored != null ? stored.get(0) : null;
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.where(cb.equal(root.get("id"), id));
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            return false;
+        }
+        if (stored != null) {
+            WGStatistikService.Changes statistikChanges = new WGStatistikService.Changes();
+            statistikChanges.mitglied(fromWgId, changes.getWgId());
+            wgStatistikService.apply(statistikChanges);
+        }
+        return true;
     }
 
+    /**
+     * Saves many Mitglied entities in one transaction, so their inserts and updates are sent in JDBC batches.
+     * Entities with an ID update the existing Mitglied. The existing entities are loaded with one query and
+     * their versions are compared with the given ones, so a concurrent change is rejected instead of overwritten. The counters of all affected WGs
+     * are updated with one statement per WG.
+     *
+     * @param mitglieder The Mitglied entities to be saved.
+     * @return The saved Mitglied entities.
+     * @throws InvalidRequestException if a Mitglied with one of the given IDs does not exist.
+     * @throws ObjectOptimisticLockingFailureException if a Mitglied was changed since the given version.
+     */
+    @Transactional
+    public List<Mitglied> saveAll(List<Mitglied> mitglieder) {
+        List<Long> ids = mitglieder.stream().map(Mitglied::getId).filter(Objects::nonNull).toList();
+        Map<Long, Mitglied> existing = mitgliedRepository.findAllById(ids).stream().collect(Collectors.toMap(Mitglied::getId, Function.identity()));
+        WGStatistikService.Changes changes = new WGStatistikService.Changes();
+        for (Mitglied mitglied : mitglieder) {
+            Long fromWgId = null;
+            if (mitglied.getId() != null) {
+                Mitglied stored = existing.get(mitglied.getId());
+                if (stored == null) {
+                    throw new InvalidRequestException("Mitglied " + mitglied.getId() + " does not exist");
+                }
+                if (mitglied.getVersion() != stored.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(Mitglied.class, mitglied.getId());
+                }
+                fromWgId = WGStatistikService.wgIdOf(stored.getWg());
+            }
+            changes.mitglied(fromWgId, WGStatistikService.wgIdOf(mitglied.getWg()));
+        }
+        List<Mitglied> saved = mitgliedRepository.saveAll(mitglieder);
+        wgStatistikService.apply(changes);
+        return saved;
+    }
 }
@@ -0,0 +1,34 @@
+package com.example.wgkompass.services;
+
+import com.example.wgkompass.exception.InvalidRequestException;
+
+/**
+ * The SettlementMode enum defines how the financial obligations of a WG dissolution are settled.
+ */
+public enum SettlementMode {
+    /**
+     * Every member who took over items owes every other member an equal share of their value.
+     */
+    PAIRWISE,
+
+    /**
+     * The balances of all members are netted first and settled with as few transfers as possible.
+     */
+    NET;
+
+    /**
+     * Parses a settlement mode from a request parameter, ignoring case.
+     *
+     * @param value The value of the request parameter.
+     * @return The matching settlement mode.
+     * @throws InvalidRequestException if the value does not name a settlement mode.
+     */
+    public static SettlementMode fromParameter(String value) {
+        for (SettlementMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new InvalidRequestException("Unknown settlement mode: " + value);
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.wgkompass.services;
+
+import com.example.wgkompass.config.RequestIdFilter;
+import com.example.wgkompass.config.SqlProfilingConfig;
+import com.example.wgkompass.dto.SqlQueryStatisticsDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * The SqlProfilerService class collects the durations of the SQL statements measured at the data source.
+ * Statements are normalized, so executions that only differ in their literals share their statistics,
+ * and every statistic remembers the request of its slowest execution.
+ * Statements slower than the configured threshold are logged on a background thread, so logging never
+ * delays a request; if the log cannot keep up, further slow statements are only counted.
+ * It only exists while the profiling is enabled.
+ */
+@Service
+@ConditionalOnProperty(name = SqlProfilingConfig.ENABLED, matchIfMissing = true)
+public class SqlProfilerService {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlProfilerService.class);
+
+    /**
+     * The name of the counter of statements slower than the threshold.
+     */
+    private static final String SLOW_COUNTER = "wgkompass.sql.slow";
+
+    /**
+     * The name of the counter of slow statements that were not logged because the log queue was full.
+     */
+    private static final String DROPPED_COUNTER = "wgkompass.sql.slow.dropped";
+
+    /**
+     * The number of slow statements waiting to be logged before further ones are dropped.
+     */
+    private static final int LOG_QUEUE_SIZE = 1000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wgkompass.sql.slow-threshold}")
+    private Duration slowThreshold;
+
+    @Value("${wgkompass.sql.max-statements}")
+    private int maxStatements;
+
+    /**
+     * The statistics by normalized statement. New statements are only added while holding the lock of the service,
+     * so the map never exceeds the maximum size.
+     */
+    private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * The normalized form by raw statement. Hibernate reuses a small set of prepared statements, so the
+     * expensive normalization runs once per statement; statements beyond the maximum size are normalized every time.
+     */
+    private final Map<String, String> normalizedStatements = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor slowLog;
+
+    private Counter slow;
+
+    private Counter dropped;
+
+    /**
+     * Starts the background thread of the slow statement log.
+     */
+    @PostConstruct
+    public void start() {
+        slow = meterRegistry.counter(SLOW_COUNTER);
+        dropped = meterRegistry.counter(DROPPED_COUNTER);
+        slowLog = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(LOG_QUEUE_SIZE),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sql-slow-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> dropped.increment());
+    }
+
+    /**
+     * Stops the background thread of the slow statement log.
+     */
+    @PreDestroy
+    public void stop() {
+        slowLog.shutdown();
+    }
+
+    /**
+     * Records an execution of a statement, attributed to the request handled by the current thread.
+     *
+     * @param sql The SQL of the statement.
+     * @param nanos The duration of the execution in nanoseconds.
+     */
+    public void record(String sql, long nanos) {
+        String requestId = MDC.get(RequestIdFilter.REQUEST_ID_KEY);
+        String request = MDC.get(RequestIdFilter.REQUEST_KEY);
+        String normalized = normalizedStatements.get(sql);
+        if (normalized == null) {
+            normalized = normalize(sql);
+            cacheNormalized(sql, normalized);
+        }
+        Statistics entry = statistics.get(normalized);
+        if (entry == null && statistics.size() < maxStatements) {
+            // statements with unusual literals must not grow the statistics without bound
+            entry = admit(normalized);
+        }
+        if (entry != null) {
+            entry.add(nanos, requestId, request);
+        }
+        if (nanos >= slowThreshold.toNanos()) {
+            slow.increment();
+            // the normalized statement is logged, so literals with user data do not end up in the log
+            String logged = normalized;
+            slowLog.execute(() -> log.warn("Slow SQL statement took {} ms in request {} ({}): {}",
+                    nanos / 1_000_000, requestId, request, logged));
+        }
+    }
+
+    /**
+     * Adds the statistics of a new normalized statement, unless the maximum number of statements is reached.
+     *
+     * @param normalized The normalized SQL of the statement.
+     * @return The statistics of the statement, or null if the maximum number of statements is reached.
+     */
+    private synchronized Statistics admit(String normalized) {
+        Statistics entry = statistics.get(normalized);
+        if (entry == null && statistics.size() < maxStatements) {
+            entry = new Statistics();
+            statistics.put(normalized, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Remembers the normalized form of a raw statement, unless the maximum number of statements is reached.
+     *
+     * @param sql The raw SQL of the statement.
+     * @param normalized The normalized SQL of the statement.
+     */
+    private void cacheNormalized(String sql, String normalized) {
+        if (normalizedStatements.size() >= maxStatements) {
+            return;
+        }
+        synchronized (normalizedStatements) {
+            if (normalizedStatements.size() < maxStatements) {
+                normalizedStatements.putIfAbsent(sql, normalized);
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics of the statements with the slowest executions, slowest first.
+     *
+     * @param limit The maximum number of statements to return.
+     * @return The statistics of at most limit statements.
+     */
+    public List<SqlQueryStatisticsDto> getSlowest(int limit) {
+        return statistics.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .sorted(Comparator.comparingDouble(SqlQueryStatisticsDto::getMaxMillis).reversed())
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    /**
+     * Removes all collected statistics and the cached normalized statements.
+     */
+    public synchronized void reset() {
+        statistics.clear();
+        normalizedStatements.clear();
+    }
+
+    /**
+     * Normalizes a statement by replacing its literals with placeholders, shortening its IN lists
+     * to a single placeholder and collapsing its whitespace.
+     *
+     * @param sql The SQL of the statement.
+     * @return The normalized SQL.
+     */
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * The execution statistics of one normalized statement.
+     */
+    private static class Statistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private volatile long maxNanos;
+        private String slowestRequestId;
+        private String slowestRequest;
+
+        private void add(long nanos, String requestId, String request) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos) {
+                synchronized (this) {
+                    if (nanos > maxNanos) {
+                        maxNanos = nanos;
+                        slowestRequestId = requestId;
+                        slowestRequest = request;
+                    }
+                }
+            }
+        }
+
+        private synchronized SqlQueryStatisticsDto toDto(String sql) {
+            long executions = count.sum();
+            double totalMillis = totalNanos.sum() / 1e6;
+            return new SqlQueryStatisticsDto(sql, executions, totalMillis, executions > 0 ? totalMillis / executions : 0,
+                    maxNanos / 1e6, slowestRequestId, slowestRequest);
+        }
+    }
+}
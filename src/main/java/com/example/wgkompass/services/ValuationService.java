@@ -0,0 +1,198 @@
+package com.example.wgkompass.services;
+
+import com.example.wgkompass.dto.DissolveResultDto;
+import com.example.wgkompass.models.Inventar;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ValuationService class calculates the current value of inventory items in closed form.
+ * The remaining value factors of the declining-balance method are precomputed once per depreciation rate,
+ * and the valuation date is resolved once per batch, so valuing an item needs neither calendar arithmetic
+ * nor recursion.
+ */
+@Service
+public class ValuationService {
+
+    /**
+     * The number of years covered by a precomputed factor table. Older items fall back to Math.pow.
+     */
+    private static final int FACTOR_TABLE_YEARS = 100;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * The remaining value factors of the declining-balance method, indexed by years and cached per depreciation rate.
+     */
+    private final Map<Double, double[]> decliningBalanceFactors = new ConcurrentHashMap<>();
+
+    /**
+     * Prepares the valuation of a batch of inventory items at the given date.
+     *
+     * @param valuationDate The date to which the current values are calculated.
+     * @param method The depreciation method to apply.
+     * @return A Valuation that calculates the current value of single items.
+     */
+    public Valuation forDate(LocalDate valuationDate, DepreciationMethod method) {
+        return forDate(valuationDate, method, ZoneId.systemDefault());
+    }
+
+    /**
+     * Prepares the valuation of a batch of inventory items at the given date, with purchase timestamps
+     * mapped to days in the given time zone.
+     *
+     * @param valuationDate The date to which the current values are calculated.
+     * @param method The depreciation method to apply.
+     * @param zone The time zone in which the purchase dates are counted.
+     * @return A Valuation that calculates the current value of single items.
+     */
+    public Valuation forDate(LocalDate valuationDate, DepreciationMethod method, ZoneId zone) {
+        return new Valuation(valuationDate, method, zone);
+    }
+
+    /**
+     * Calculates the current values of all given inventory items at the given date.
+     *
+     * @param inventare The inventory items to value.
+     * @param valuationDate The date to which the current values are calculated.
+     * @param method The depreciation method to apply.
+     * @return The original and current value of every inventory item, in the order of the given items.
+     */
+    public List<DissolveResultDto.InventoryValue> valueAll(List<Inventar> inventare, LocalDate valuationDate, DepreciationMethod method) {
+        Valuation valuation = forDate(valuationDate, method);
+        List<DissolveResultDto.InventoryValue> values = new ArrayList<>(inventare.size());
+        for (Inventar inventar : inventare) {
+            values.add(new DissolveResultDto.InventoryValue(inventar.getId(), valueOrZero(inventar.getPreis()), valuation.currentValue(inventar)));
+        }
+        return values;
+    }
+
+    /**
+     * Stores the current value of every given inventory item with the declining-balance method as its snapshot,
+     * valid for today. The items are not saved by this method.
+     *
+     * @param inventare The inventory items whose snapshots are refreshed.
+     */
+    public void refreshSnapshots(Iterable<Inventar> inventare) {
+        LocalDate today = LocalDate.now();
+        Valuation valuation = forDate(today, DepreciationMethod.DECLINING_BALANCE);
+        for (Inventar inventar : inventare) {
+            inventar.setAktuellerWert(valuation.currentValue(valueOrZero(inventar.getPreis()), inventar.getKaufdatum(), valueOrZero(inventar.getAbschreibungssatz())));
+            inventar.setBewertungsdatum(today);
+        }
+    }
+
+    /**
+     * Returns the remaining value factors of the declining-balance method for the given rate,
+     * computing and caching them on first use.
+     *
+     * @param depreciationRate The annual depreciation rate in percentage.
+     * @return The remaining value factor for every full year from 0 to FACTOR_TABLE_YEARS.
+     */
+    private double[] decliningBalanceFactors(double depreciationRate) {
+        return decliningBalanceFactors.computeIfAbsent(depreciationRate, rate -> {
+            double[] factors = new double[FACTOR_TABLE_YEARS + 1];
+            double remaining = 1 - rate / 100;
+            factors[0] = 1;
+            for (int year = 1; year <= FACTOR_TABLE_YEARS; year++) {
+                factors[year] = factors[year - 1] * remaining;
+            }
+            return factors;
+        });
+    }
+
+    private static double valueOrZero(Double value) {
+        return value != null ? value : 0;
+    }
+
+    /**
+     * A Valuation calculates the current value of inventory items at a fixed valuation date with a fixed method.
+     * The valuation date and the rules of the time zone are resolved once. Every purchase timestamp is mapped to its
+     * local day with the offset in effect at that instant, so items bought on the other side of a daylight saving change
+     * land on the right day. The age in full years then only needs integer arithmetic.
+     * A Valuation is meant to be used by a single thread.
+     */
+    public class Valuation {
+
+        private final DepreciationMethod method;
+
+        /**
+         * The valuation date as days since the epoch.
+         */
+        private final long valuationDay;
+
+        /**
+         * The rules of the time zone, used to map purchase timestamps to local days.
+         */
+        private final ZoneRules zoneRules;
+
+        /**
+         * The factor table of the most recently used depreciation rate, as most items of a WG share their rate.
+         */
+        private double lastRate = Double.NaN;
+        private double[] lastFactors;
+
+        private Valuation(LocalDate valuationDate, DepreciationMethod method, ZoneId zone) {
+            this.method = method;
+            this.valuationDay = valuationDate.toEpochDay();
+            this.zoneRules = zone.getRules();
+        }
+
+        /**
+         * Calculates the current value of an inventory item.
+         * The stored snapshot is used instead if it was calculated with the declining-balance method for the valuation date.
+         *
+         * @param inventar The inventory item to value.
+         * @return The current value of the inventory item.
+         */
+        public double currentValue(Inventar inventar) {
+            if (method == DepreciationMethod.DECLINING_BALANCE && inventar.getAktuellerWert() != null
+                    && inventar.getBewertungsdatum() != null && inventar.getBewertungsdatum().toEpochDay() == valuationDay) {
+                return inventar.getAktuellerWert();
+            }
+            return currentValue(valueOrZero(inventar.getPreis()), inventar.getKaufdatum(), valueOrZero(inventar.getAbschreibungssatz()));
+        }
+
+        /**
+         * Calculates the current value of an item from its purchase price, purchase date and depreciation rate.
+         *
+         * @param preis The purchase price of the item.
+         * @param kaufdatum The purchase date of the item, or null if unknown.
+         * @param depreciationRate The annual depreciation rate of the item in percentage.
+         * @return The current value of the item.
+         */
+        public double currentValue(double preis, Date kaufdatum, double depreciationRate) {
+            if (kaufdatum == null) {
+                return preis;
+            }
+            // equivalent to atZone(zone).toLocalDate().toEpochDay(), which java.sql.Date does not support
+            long millis = kaufdatum.getTime();
+            long offsetMillis = zoneRules.getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds() * 1000L;
+            long purchaseDay = Math.floorDiv(millis + offsetMillis, MILLIS_PER_DAY);
+            long years = (valuationDay - purchaseDay) / 365;
+            if (years <= 0) {
+                return preis;
+            }
+            if (method == DepreciationMethod.LINEAR) {
+                return preis * Math.max(0, 1 - depreciationRate / 100 * years);
+            }
+            if (years > FACTOR_TABLE_YEARS) {
+                return preis * Math.pow(1 - depreciationRate / 100, years);
+            }
+            if (depreciationRate != lastRate) {
+                lastFactors = decliningBalanceFactors(depreciationRate);
+                lastRate = depreciationRate;
+            }
+            return preis * lastFactors[(int) years];
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.wgkompass.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ValuationSnapshotService refreshes the valuation snapshots of all inventory items every night,
+ * so dissolutions and valuations read the current value instead of calculating it.
+ * The items with an outdated snapshot are read page by page over JDBC and their snapshots are written
+ * with batched UPDATE statements, without loading entities. A snapshot is only written if the item was
+ * not changed in the meantime, otherwise it stays outdated and is calculated on demand.
+ * The duration of every refresh is logged and recorded by the "wgkompass.valuation.snapshot" timer.
+ */
+@Service
+public class ValuationSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ValuationSnapshotService.class);
+
+    /**
+     * The number of inventory items read and updated together.
+     */
+    private static final int PAGE_SIZE = 1000;
+
+    private static final String SELECT_OUTDATED = "select id, version, preis, kaufdatum, abschreibungssatz from inventar"
+            + " where (bewertungsdatum is null or bewertungsdatum <> ?) and id > ? order by id limit " + PAGE_SIZE;
+
+    private static final String UPDATE_SNAPSHOT = "update inventar set aktueller_wert = ?, bewertungsdatum = ? where id = ? and version = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ValuationService valuationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Refreshes the outdated valuation snapshots of all inventory items for today.
+     * Runs every night as configured by "wgkompass.valuation.snapshot-cron".
+     *
+     * @return The number of refreshed snapshots.
+     */
+    @Scheduled(cron = "${wgkompass.valuation.snapshot-cron}")
+    public int refreshSnapshots() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDate today = LocalDate.now();
+        Date valuationDate = Date.valueOf(today);
+        ValuationService.Valuation valuation = valuationService.forDate(today, DepreciationMethod.DECLINING_BALANCE);
+
+        int refreshed = 0;
+        long after = 0;
+        List<Object[]> updates = new ArrayList<>(PAGE_SIZE);
+        while (true) {
+            updates.clear();
+            jdbcTemplate.query(SELECT_OUTDATED, rs -> {
+                double currentValue = valuation.currentValue(rs.getDouble("preis"), rs.getTimestamp("kaufdatum"), rs.getDouble("abschreibungssatz"));
+                updates.add(new Object[]{currentValue, valuationDate, rs.getLong("id"), rs.getLong("version")});
+            }, valuationDate, after);
+            if (updates.isEmpty()) {
+                break;
+            }
+            for (int count : jdbcTemplate.batchUpdate(UPDATE_SNAPSHOT, updates)) {
+                // the driver may only report that a batched statement succeeded without a row count
+                refreshed += count > 0 || count == Statement.SUCCESS_NO_INFO ? 1 : 0;
+            }
+            after = (long) updates.get(updates.size() - 1)[2];
+        }
+
+        long nanos = sample.stop(meterRegistry.timer("wgkompass.valuation.snapshot"));
+        log.info("Refreshed {} valuation snapshots in {} ms", refreshed, nanos / 1_000_000);
+        return refreshed;
+    }
+}
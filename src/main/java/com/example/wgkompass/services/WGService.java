@@ -1,11 +1,31 @@
 package com.example.wgkompass.services;
 
+import com.example.wgkompass.dto.WGDto;
+import com.example.wgkompass.dto.WGOverviewDto;
+import com.example.wgkompass.exception.InvalidRequestException;
 import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
 import com.example.wgkompass.repositories.WGRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * The WGService class provides business logic and operations for WG (Wohngemeinschaft) entities.
@@ -17,12 +37,28 @@ public class WGService {
     @Autowired
     private WGRepository wgRepository;
 
+    @Autowired
+    private WGStatistikService wgStatistikService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
     /**
      * Retrieves a WG entity by its ID.
      *
      * @param id The ID of the WG to be retrieved.
      * @return An Optional containing the WG if found, or an empty Optional otherwise.
      */
+    @Transactional(readOnly = true)
     public Optional<WG> getById(Long id) {
         return wgRepository.findById(id);
     }
@@ -32,18 +68,119 @@ public class WGService {
      *
      * @return An Iterable of all WG entities.
      */
+    @Transactional(readOnly = true)
     public Iterable<WG> getAll() {
         return wgRepository.findAll();
     }
 
+    /**
+     * Retrieves a page of WG entities with an ID greater than the given cursor, ordered by ID.
+     *
+     * @param after The cursor; only entities with a greater ID are returned.
+     * @param limit The maximum number of entities to return.
+     * @return A List of at most limit WG entities.
+     */
+    @Transactional(readOnly = true)
+    public List<WG> getPage(long after, int limit) {
+        return wgRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves the overview of a WG with its members, inventory items and tasks.
+     * The WG and each of its three lists are read with one query each inside a single read-only transaction,
+     * so the number of statements does not depend on the size of the WG.
+     *
+     * @param id The ID of the WG.
+     * @return An Optional containing the overview if the WG exists, or an empty Optional otherwise.
+     */
+    @Transactional(readOnly = true)
+    public Optional<WGOverviewDto> getOverview(Long id) {
+        return wgRepository.findById(id).map(wg -> new WGOverviewDto(
+                wg.getId(),
+                wg.getName(),
+                mitgliedRepository.findDtosByWgId(id),
+                inventarRepository.findDtosByWgId(id),
+                aufgabeRepository.findDtosByWgId(id)));
+    }
+
     /**
      * Saves a WG entity to the repository.
-     * If the WG already exists, it will be updated; otherwise, a new WG will be created.
+     * If the WG already exists, it will be updated; otherwise, a new WG will be created with zero counters.
      *
      * @param wg The WG entity to be saved.
      * @return The saved WG entity.
      */
+    @Transactional
     public WG save(WG wg) {
-        return wgRepository.save(wg);
+        boolean created = wg.getId() == null;
+        WG saved = wgRepository.save(wg);
+        if (created) {
+            wgStatistikService.create(saved.getId());
+        }
+        return saved;
+    }
+
+    /**
+     * Applies the non-null fields of the DTO to a WG with a single UPDATE statement, without loading it first.
+     * The version is incremented, so ETags of the WG change as with a regular update.
+     *
+     * @param id The ID of the WG to be changed.
+     * @param changes The DTO holding the fields to change; null fields are left unchanged.
+     * @return true if the WG exists and was changed, false otherwise.
+     * @throws InvalidRequestException if the DTO contains no field to change.
+     */
+    @Transactional
+    public boolean patch(Long id, WGDto changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<WG> update = cb.createCriteriaUpdate(WG.class);
+        Root<WG> root = update.from(WG.class);
+        boolean changed = false;
+        if (changes.getName() != null) {
+            update.set(root.get("name"), changes.getName());
+            changed = true;
+        }
+        if (!changed) {
+            throw new InvalidRequestException("No fields to update");
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.where(cb.equal(root.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate() > 0;
+    }
+
+    /**
+     * Saves many WG entities in one transaction, so their inserts and updates are sent in JDBC batches.
+     * Entities with an ID update the existing WG. The existing entities are loaded with one query and
+     * their versions are compared with the given ones, so a concurrent change is rejected instead of overwritten. New WGs get zero counters.
+     *
+     * @param wgs The WG entities to be saved.
+     * @return The saved WG entities.
+     * @throws InvalidRequestException if a WG with one of the given IDs does not exist.
+     * @throws ObjectOptimisticLockingFailureException if a WG was changed since the given version.
+     */
+    @Transactional
+    public List<WG> saveAll(List<WG> wgs) {
+        List<Long> ids = wgs.stream().map(WG::getId).filter(Objects::nonNull).toList();
+        Map<Long, WG> existing = wgRepository.findAllById(ids).stream().collect(Collectors.toMap(WG::getId, Function.identity()));
+        for (WG wg : wgs) {
+            if (wg.getId() != null) {
+                WG stored = existing.get(wg.getId());
+                if (stored == null) {
+                    throw new InvalidRequestException("WG " + wg.getId() + " does not exist");
+                }
+                if (wg.getVersion() != stored.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(WG.class, wg.getId());
+                }
+            }
+        }
+        List<Boolean> created = wgs.stream().map(wg -> wg.getId() == null).toList();
+        List<WG> saved = wgRepository.saveAll(wgs);
+        List<Long> createdIds = new ArrayList<>();
+        for (int i = 0; i < saved.size(); i++) {
+            if (created.get(i)) {
+                createdIds.add(saved.get(i).getId());
+            }
+        }
+        wgStatistikService.createAll(createdIds);
+        return saved;
     }
 }
@@ -0,0 +1,302 @@
+package com.example.wgkompass.services;
+
+import com.example.wgkompass.dto.WGStatistikDto;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.models.WGStatistik;
+import com.example.wgkompass.repositories.WGStatistikRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The WGStatistikService class maintains the aggregate counters of every WG.
+ * The services collect the effects of a change as Changes and apply them in the same transaction,
+ * with one atomic UPDATE per affected WG. A WG without counters gets them created and recomputed on first use,
+ * which is safe when several requests do it at once, and a repair job recomputes the counters of all WGs
+ * from scratch, which also picks up the valuation snapshots refreshed during the night.
+ */
+@Service
+public class WGStatistikService {
+
+    private static final Logger log = LoggerFactory.getLogger(WGStatistikService.class);
+
+    /**
+     * Adds deltas to the counters of a WG, so concurrent changes of the same WG do not overwrite each other.
+     * It is sent over JDBC, because a native query through Hibernate would evict the whole second-level cache.
+     */
+    private static final String ADD_DELTAS = "update wg_statistik set mitglieder = mitglieder + ?, inventare = inventare + ?,"
+            + " inventar_kaufwert = inventar_kaufwert + ?, inventar_aktueller_wert = inventar_aktueller_wert + ?,"
+            + " offene_aufgaben = offene_aufgaben + ? where wg_id = ?";
+
+    /**
+     * Creates the missing counter rows of all WGs with zero values.
+     */
+    private static final String INSERT_MISSING = "insert into wg_statistik (wg_id, mitglieder, inventare, inventar_kaufwert, inventar_aktueller_wert, offene_aufgaben)"
+            + " select w.id, 0, 0, 0, 0, 0 from wg w where not exists (select 1 from wg_statistik s where s.wg_id = w.id)";
+
+    /**
+     * Creates the zero counter row of a single existing WG, unless it already exists.
+     */
+    private static final String INSERT_MISSING_ONE = "insert into wg_statistik (wg_id, mitglieder, inventare, inventar_kaufwert, inventar_aktueller_wert, offene_aufgaben)"
+            + " select w.id, 0, 0, 0, 0, 0 from wg w where w.id = ? and not exists (select 1 from wg_statistik s where s.wg_id = w.id)";
+
+    /**
+     * Recomputes the counters of all WGs with one statement.
+     */
+    private static final String RECOMPUTE_ALL = "update wg_statistik s set"
+            + " mitglieder = (select count(*) from mitglied m where m.wg_id = s.wg_id),"
+            + " inventare = (select count(*) from inventar i where i.wg_id = s.wg_id),"
+            + " inventar_kaufwert = (select coalesce(sum(i.preis), 0) from inventar i where i.wg_id = s.wg_id),"
+            + " inventar_aktueller_wert = (select coalesce(sum(i.aktueller_wert), 0) from inventar i where i.wg_id = s.wg_id),"
+            + " offene_aufgaben = (select count(*) from aufgabe a where a.wg_id = s.wg_id)";
+
+    /**
+     * Locks the counter row of a single WG until the end of the transaction.
+     */
+    private static final String LOCK_ONE = "select wg_id from wg_statistik where wg_id = ? for update";
+
+    /**
+     * Recomputes the counters of a single WG.
+     */
+    private static final String RECOMPUTE_ONE = RECOMPUTE_ALL + " where s.wg_id = ?";
+
+    /**
+     * Removes the counter rows of WGs that no longer exist.
+     */
+    private static final String DELETE_ORPHANED = "delete from wg_statistik where wg_id not in (select id from wg)";
+
+    @Autowired
+    private WGStatistikRepository wgStatistikRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Retrieves the counters of a WG with a single primary key lookup.
+     * Counters that are missing, e.g. of WGs created before the counters existed, are created and recomputed first.
+     *
+     * @param wgId The ID of the WG.
+     * @return An Optional containing the counters if the WG exists, or an empty Optional otherwise.
+     */
+    @Transactional
+    public Optional<WGStatistikDto> getByWgId(Long wgId) {
+        return wgStatistikRepository.findById(wgId)
+                .or(() -> initialize(wgId) ? wgStatistikRepository.findById(wgId) : Optional.empty())
+                .map(s -> new WGStatistikDto(s.getWgId(), s.getMitglieder(), s.getInventare(),
+                        s.getInventarKaufwert(), s.getInventarAktuellerWert(), s.getOffeneAufgaben()));
+    }
+
+    /**
+     * Creates the zero counters of a new WG.
+     *
+     * @param wgId The ID of the new WG.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void create(Long wgId) {
+        createAll(List.of(wgId));
+    }
+
+    /**
+     * Creates the zero counters of several new WGs with one flush, so the inserts are sent as a JDBC batch.
+     *
+     * @param wgIds The IDs of the new WGs.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createAll(List<Long> wgIds) {
+        if (wgIds.isEmpty()) {
+            return;
+        }
+        for (Long wgId : wgIds) {
+            WGStatistik statistik = new WGStatistik();
+            statistik.setWgId(wgId);
+            entityManager.persist(statistik);
+        }
+        // the rows are written at once, so deltas sent over JDBC later in the transaction find them
+        entityManager.flush();
+    }
+
+    /**
+     * Applies the collected changes to the counters of the affected WGs.
+     * It has to run in the transaction of the change, after the changed entities were saved.
+     *
+     * @param changes The collected changes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Changes changes) {
+        for (Map.Entry<Long, Delta> entry : changes.deltas.entrySet()) {
+            Delta delta = entry.getValue();
+            if (delta.isZero()) {
+                continue;
+            }
+            int updated = jdbcTemplate.update(ADD_DELTAS, delta.mitglieder, delta.inventare,
+                    delta.inventarKaufwert, delta.inventarAktuellerWert, delta.offeneAufgaben, entry.getKey());
+            if (updated == 0) {
+                // the recomputation sees the saved change, so the delta is not added again
+                initialize(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Recomputes the counters of all WGs from scratch, creating missing and removing orphaned rows.
+     * Runs every night after the valuation snapshots were refreshed, as configured by "wgkompass.statistik.repair-cron".
+     *
+     * @return The number of WGs whose counters were recomputed.
+     */
+    @Scheduled(cron = "${wgkompass.statistik.repair-cron}")
+    @Transactional
+    public int repairAll() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // the counters are changed over JDBC, so entities loaded before must not be written back
+        entityManager.flush();
+        entityManager.clear();
+        jdbcTemplate.update(INSERT_MISSING);
+        jdbcTemplate.update(DELETE_ORPHANED);
+        int repaired = jdbcTemplate.update(RECOMPUTE_ALL);
+        long nanos = sample.stop(meterRegistry.timer("wgkompass.statistik.repair"));
+        log.info("Recomputed the counters of {} WGs in {} ms", repaired, nanos / 1_000_000);
+        return repaired;
+    }
+
+    /**
+     * Creates the counters of a single WG if they are missing and recomputes them.
+     * The row is created idempotently, so concurrent requests for the same WG do not collide on the primary key.
+     * It is locked before the counts are read: changes whose delta was added before have committed by then and are
+     * counted, and changes whose delta comes later are added on top of the recomputed counters.
+     *
+     * @param wgId The ID of the WG.
+     * @return true if the WG exists and its counters were recomputed, false otherwise.
+     */
+    private boolean initialize(Long wgId) {
+        // changes saved in this transaction have to reach the database before the counters are recomputed
+        entityManager.flush();
+        try {
+            jdbcTemplate.update(INSERT_MISSING_ONE, wgId);
+        } catch (DuplicateKeyException e) {
+            // another transaction created the row in the meantime, which is recomputed below
+        }
+        if (jdbcTemplate.queryForList(LOCK_ONE, Long.class, wgId).isEmpty()) {
+            return false;
+        }
+        return jdbcTemplate.update(RECOMPUTE_ONE, wgId) > 0;
+    }
+
+    /**
+     * Returns the ID of a WG, or null if there is no WG.
+     *
+     * @param wg The WG, which may be null.
+     * @return The ID of the WG, or null.
+     */
+    public static Long wgIdOf(WG wg) {
+        return wg != null ? wg.getId() : null;
+    }
+
+    /**
+     * The changes of the counters caused by saving entities, collected per WG.
+     * A WG ID of null stands for an entity that is new or belongs to no WG, and is ignored.
+     */
+    public static class Changes {
+
+        private final Map<Long, Delta> deltas = new HashMap<>();
+
+        /**
+         * Records that a member moved from one WG to another.
+         *
+         * @param fromWgId The ID of the previous WG, or null for a new member.
+         * @param toWgId The ID of the current WG.
+         */
+        public void mitglied(Long fromWgId, Long toWgId) {
+            if (fromWgId != null && !fromWgId.equals(toWgId)) {
+                delta(fromWgId).mitglieder--;
+            }
+            if (toWgId != null && !toWgId.equals(fromWgId)) {
+                delta(toWgId).mitglieder++;
+            }
+        }
+
+        /**
+         * Records that a task moved from one WG to another.
+         *
+         * @param fromWgId The ID of the previous WG, or null for a new task.
+         * @param toWgId The ID of the current WG.
+         */
+        public void aufgabe(Long fromWgId, Long toWgId) {
+            if (fromWgId != null && !fromWgId.equals(toWgId)) {
+                delta(fromWgId).offeneAufgaben--;
+            }
+            if (toWgId != null && !toWgId.equals(fromWgId)) {
+                delta(toWgId).offeneAufgaben++;
+            }
+        }
+
+        /**
+         * Records that an inventory item changed its values or moved from one WG to another.
+         * The previous values are removed from the previous WG and the current values added to the current WG.
+         *
+         * @param fromWgId The ID of the previous WG, or null for a new item.
+         * @param fromPreis The previous purchase price.
+         * @param fromWert The previous current value.
+         * @param toWgId The ID of the current WG.
+         * @param toPreis The current purchase price.
+         * @param toWert The current value.
+         */
+        public void inventar(Long fromWgId, Double fromPreis, Double fromWert, Long toWgId, Double toPreis, Double toWert) {
+            if (fromWgId != null) {
+                Delta from = delta(fromWgId);
+                from.inventare--;
+                from.inventarKaufwert -= valueOrZero(fromPreis);
+                from.inventarAktuellerWert -= valueOrZero(fromWert);
+            }
+            if (toWgId != null) {
+                Delta to = delta(toWgId);
+                to.inventare++;
+                to.inventarKaufwert += valueOrZero(toPreis);
+                to.inventarAktuellerWert += valueOrZero(toWert);
+            }
+        }
+
+        private Delta delta(Long wgId) {
+            return deltas.computeIfAbsent(wgId, id -> new Delta());
+        }
+
+        private static double valueOrZero(Double value) {
+            return value != null ? value : 0;
+        }
+    }
+
+    /**
+     * The change of the counters of a single WG.
+     */
+    private static class Delta {
+        private long mitglieder;
+        private long inventare;
+        private double inventarKaufwert;
+        private double inventarAktuellerWert;
+        private long offeneAufgaben;
+
+        private boolean isZero() {
+            return mitglieder == 0 && inventare == 0 && inventarKaufwert == 0 && inventarAktuellerWert == 0 && offeneAufgaben == 0;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.wgkompass.utils;
+
+import com.example.wgkompass.dto.AufgabeDto;
+import com.example.wgkompass.dto.InventarDto;
+import com.example.wgkompass.dto.MitgliedDto;
+import com.example.wgkompass.dto.WGDto;
+import com.example.wgkompass.models.Aufgabe;
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+
+/**
+ * The DtoMapper class provides utility methods for converting entities to their data transfer objects.
+ * It is shared by the controllers and the export, so every endpoint renders an entity the same way.
+ * This class is designed to be used as a utility with static methods and cannot be instantiated.
+ */
+public class DtoMapper {
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private DtoMapper() {
+        // Private Constructor to prevent instantiation
+    }
+
+    /**
+     * Converts a WG entity to a WGDto.
+     *
+     * @param wg WG entity.
+     * @return WGDto corresponding to the WG entity.
+     */
+    public static WGDto toWGDto(WG wg) {
+        return new WGDto(wg.getId(), wg.getName(), wg.getVersion());
+    }
+
+    /**
+     * Converts a Mitglied (member) entity to a MitgliedDto.
+     *
+     * @param mitglied Mitglied entity.
+     * @return MitgliedDto corresponding to the Mitglied entity.
+     */
+    public static MitgliedDto toMitgliedDto(Mitglied mitglied) {
+        return new MitgliedDto(
+                mitglied.getId(),
+                mitglied.getVorname(),
+                mitglied.getNachname(),
+                mitglied.getWg().getId(),
+                mitglied.getVersion());
+    }
+
+    /**
+     * Converts an Inventar entity to an InventarDto object.
+     *
+     * @param inventar The Inventar entity to be converted.
+     * @return An InventarDto object containing the data from the Inventar entity.
+     */
+    public static InventarDto toInventarDto(Inventar inventar) {
+        return new InventarDto(
+                inventar.getId(),
+                inventar.getName(),
+                inventar.getPreis(),
+                inventar.getKaufdatum(),
+                inventar.getAbschreibungssatz(),
+                inventar.getWg().getId(),
+                inventar.getVersion()
+        );
+    }
+
+    /**
+     * Converts an Aufgabe (task) entity to an AufgabeDto.
+     *
+     * @param aufgabe Aufgabe entity.
+     * @return AufgabeDto corresponding to the Aufgabe entity.
+     */
+    public static AufgabeDto toAufgabeDto(Aufgabe aufgabe) {
+        Long verantwortlichesMitgliedId = null;
+        if (aufgabe.getVerantwortlichesMitglied() != null) {
+            verantwortlichesMitgliedId = aufgabe.getVerantwortlichesMitglied().getId();
+        }
+
+        return new AufgabeDto(
+                aufgabe.getId(),
+                aufgabe.getTitel(),
+                aufgabe.getBeschreibung(),
+                aufgabe.getWg().getId(),
+                verantwortlichesMitgliedId,
+                aufgabe.getVersion()
+        );
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.wgkompass.utils;
+
+/**
+ * The ETags class builds the entity tags of the endpoints that answer conditional requests,
+ * and checks the tags sent back in If-Match headers.
+ * This class cannot be instantiated.
+ */
+public class ETags {
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ETags() {
+        // Private Constructor to prevent instantiation
+    }
+
+    /**
+     * Returns a weak entity tag for the given version.
+     * The tags are weak, because the same version is sent either plain or gzip compressed,
+     * and Tomcat does not compress responses with a strong entity tag.
+     *
+     * @param version The version of the entity or list.
+     * @return The weak entity tag.
+     */
+    public static String weak(Object version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * Checks whether an If-Match header names the given version.
+     * The header may list several tags or "*". Weak tags match as well, because the endpoints only send weak tags.
+     *
+     * @param ifMatch The value of the If-Match header.
+     * @param version The current version of the entity.
+     * @return true if one of the tags names the version, false otherwise.
+     */
+    public static boolean matches(String ifMatch, Object version) {
+        String tag = "\"" + version + "\"";
+        for (String requested : ifMatch.split(",")) {
+            requested = requested.trim();
+            if (requested.startsWith("W/")) {
+                requested = requested.substring(2);
+            }
+            if (requested.equals("*") || requested.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
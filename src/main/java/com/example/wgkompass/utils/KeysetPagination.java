@@ -0,0 +1,76 @@
+package com.example.wgkompass.utils;
+
+import com.example.wgkompass.exception.InvalidRequestException;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The KeysetPagination class provides utility methods for paginating listings by their ID.
+ * A page contains the entries with an ID greater than the cursor "after", ordered by ID.
+ * The cursor of the following page is returned in the X-Next-Cursor response header,
+ * so the response body stays a plain list. This class cannot be instantiated.
+ */
+public class KeysetPagination {
+
+    /**
+     * The response header containing the cursor of the next page. It is missing on the last page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * The maximum number of entries per page.
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private KeysetPagination() {
+        // Private Constructor to prevent instantiation
+    }
+
+    /**
+     * Returns the cursor to start from, which is 0 for the first page.
+     *
+     * @param after The requested cursor, or null for the first page.
+     * @return The cursor to start from.
+     */
+    public static long cursor(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    /**
+     * Validates the requested page size and caps it at MAX_LIMIT.
+     *
+     * @param limit The requested page size.
+     * @return The page size to use.
+     * @throws InvalidRequestException if the page size is not positive.
+     */
+    public static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new InvalidRequestException("limit has to be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Builds the response of a page. The entries have to be loaded with one more than the page size,
+     * so the presence of a following page is known without another query.
+     *
+     * @param entries The entries of the page, ordered by ID, plus at most one entry of the following page.
+     * @param pageSize The page size.
+     * @param idOf A function returning the ID of an entry.
+     * @return ResponseEntity containing the entries of the page and the cursor of the next page, if any.
+     */
+    public static <T> ResponseEntity<List<T>> toResponse(List<T> entries, int pageSize, Function<T, Long> idOf) {
+        if (entries.size() <= pageSize) {
+            return ResponseEntity.ok(entries);
+        }
+        List<T> page = entries.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(idOf.apply(page.get(pageSize - 1))))
+                .body(page);
+    }
+}
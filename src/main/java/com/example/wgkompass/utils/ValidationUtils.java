@@ -15,14 +15,42 @@ public class ValidationUtils {
     }
 
     /**
-     * Checks if a given string contains only legal characters (letters and spaces).
+     * Checks if a given string contains characters other than letters, umlauts, digits and whitespace.
+     * The characters are scanned directly instead of matching a regular expression, so no pattern is compiled
+     * and nothing is allocated. It accepts the same strings as the pattern "[a-zA-ZäöüÄÖÜ0-9\\s]+".
      *
      * @param input The string to be checked.
-     * @return true if the string contains only letters and spaces, false otherwise.
+     * @return true if the string is empty or contains an illegal character, false otherwise.
      *         Returns false if the string is null.
      */
     public static boolean containsIllegalCharacters(String input) {
-        String regex = "^[a-zA-ZäöüÄÖÜ0-9\\s]+$";
-        return input != null && !input.matches(regex);
+        if (input == null) {
+            return false;
+        }
+        if (input.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < input.length(); i++) {
+            if (!isLegalCharacter(input.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks if a character is an ASCII letter, a German umlaut, a digit or whitespace as defined by "\\s".
+     *
+     * @param c The character to be checked.
+     * @return true if the character is legal, false otherwise.
+     */
+    private static boolean isLegalCharacter(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || c == ' '
+                || (c >= '\t' && c <= '\r') // tab, line feed, vertical tab, form feed and carriage return
+                || c == 'ä' || c == 'ö' || c == 'ü'
+                || c == 'Ä' || c == 'Ö' || c == 'Ü';
+    }
+}
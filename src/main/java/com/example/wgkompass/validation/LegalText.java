@@ -0,0 +1,43 @@
+package com.example.wgkompass.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bean Validation constraint for names and titles entered by users.
+ * The annotated text may only contain letters including German umlauts, digits and whitespace,
+ * and must not be empty. Null is valid, so fields that are not sent are not rejected.
+ */
+@Documented
+@Constraint(validatedBy = LegalTextValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.TYPE_USE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LegalText {
+
+    /**
+     * The message returned when the text contains illegal characters.
+     *
+     * @return The error message.
+     */
+    String message() default "Illegal characters in name";
+
+    /**
+     * The validation groups the constraint belongs to.
+     *
+     * @return The validation groups.
+     */
+    Class<?>[] groups() default {};
+
+    /**
+     * The payload attached to the constraint.
+     *
+     * @return The payload types.
+     */
+    Class<? extends Payload>[] payload() default {};
+}
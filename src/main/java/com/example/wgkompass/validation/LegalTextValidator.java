@@ -0,0 +1,23 @@
+package com.example.wgkompass.validation;
+
+import com.example.wgkompass.utils.ValidationUtils;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * The LegalTextValidator checks texts annotated with {@link LegalText} using the character scanner of ValidationUtils.
+ */
+public class LegalTextValidator implements ConstraintValidator<LegalText, String> {
+
+    /**
+     * Checks that the text contains only legal characters.
+     *
+     * @param value The text to be checked.
+     * @param context The context of the validation.
+     * @return true if the text is null or contains only legal characters, false otherwise.
+     */
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return !ValidationUtils.containsIllegalCharacters(value);
+    }
+}
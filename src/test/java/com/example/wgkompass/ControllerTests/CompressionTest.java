@@ -0,0 +1,148 @@
+package com.example.wgkompass.ControllerTests;
+
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.services.InventarService;
+import com.example.wgkompass.services.WGService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for the serialization and compression of the responses.
+ * The compression is done by the embedded Tomcat, so the requests are sent to a real server.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class CompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WGService wgService;
+
+    @Autowired
+    private InventarService inventarService;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private WG exampleWG;
+
+    /**
+     * Set up method to clear the database before each test and create the needed WG.
+     */
+    @BeforeEach
+    public void setUp() {
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        jdbcTemplate.update("delete from wg_statistik");
+        jdbcTemplate.update("delete from wg");
+
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgService.save(neueWG);
+    }
+
+    /**
+     * Test that the ObjectMapper of the controllers serializes with the Blackbird module.
+     */
+    @Test
+    public void testBlackbirdRegistered() {
+        assertTrue(objectMapper.getRegisteredModuleIds().stream().anyMatch(id -> id.toString().contains("Blackbird")),
+                "The Blackbird module should be registered");
+    }
+
+    /**
+     * Test that a large list is compressed with gzip and decompresses to the same JSON.
+     */
+    @Test
+    public void testLargeListCompressed() throws IOException, InterruptedException {
+        createInventare(100);
+
+        HttpResponse<byte[]> plain = get("/inventar/wg/" + exampleWG.getId(), false);
+        HttpResponse<byte[]> compressed = get("/inventar/wg/" + exampleWG.getId(), true);
+
+        assertEquals(200, compressed.statusCode());
+        assertTrue(plain.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty(), "A client that does not accept gzip should get plain JSON");
+        assertEquals("gzip", compressed.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null), "A large list should be compressed");
+        assertTrue(compressed.body().length < plain.body().length / 2, "The compressed list should be much smaller");
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            assertEquals(objectMapper.readTree(plain.body()), objectMapper.readTree(in), "The compressed list should contain the same JSON");
+        }
+    }
+
+    /**
+     * Test that a response below the minimum size is not compressed.
+     */
+    @Test
+    public void testSmallResponseNotCompressed() throws IOException, InterruptedException {
+        createInventare(1);
+
+        HttpResponse<byte[]> response = get("/inventar/wg/" + exampleWG.getId(), true);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty(), "A small response should not be compressed");
+    }
+
+    private HttpResponse<byte[]> get(String path, boolean acceptGzip) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (acceptGzip) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private void createInventare(int count) {
+        List<Inventar> inventare = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Inventar inventar = new Inventar();
+            inventar.setName("Inventar " + i);
+            inventar.setPreis(100.0 + i);
+            inventar.setKaufdatum(new Date());
+            inventar.setAbschreibungssatz(10.0);
+            inventar.setWg(exampleWG);
+            inventare.add(inventar);
+        }
+        inventarService.saveAll(inventare);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.wgkompass.ControllerTests;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the limit of concurrent requests that is active in the virtual thread mode.
+ * No permits are configured, so every request except the actuator endpoints is rejected.
+ * Virtual threads and with them the limit require Java 21 or newer.
+ */
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "wgkompass.database.max-concurrent-requests=0",
+        "wgkompass.database.acquire-timeout=0s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class ConcurrencyLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Test that a request is rejected with 503 and counted when no permit becomes free in time.
+     */
+    @Test
+    public void testRequestRejected() throws Exception {
+        double rejectedBefore = meterRegistry.counter("wgkompass.requests.rejected").count();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/wg/all"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        assertEquals(rejectedBefore + 1, meterRegistry.counter("wgkompass.requests.rejected").count(), "The rejected request should be counted");
+    }
+
+    /**
+     * Test that the actuator endpoints are not limited, so the health check works under load.
+     */
+    @Test
+    public void testActuatorNotLimited() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
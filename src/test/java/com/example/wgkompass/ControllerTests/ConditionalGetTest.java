@@ -0,0 +1,130 @@
+package com.example.wgkompass.ControllerTests;
+
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the conditional GET requests, which answer with 304 Not Modified
+ * as long as the ETag sent in the If-None-Match header still matches the entity or list.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG exampleWG;
+
+    /**
+     * Sets up the test environment before each test. It clears the database and creates the needed WG.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgRepository.save(neueWG);
+    }
+
+    /**
+     * Test that a member is not sent again until it is updated.
+     */
+    @Test
+    public void testMitgliedETag() throws Exception {
+        Mitglied mitglied = new Mitglied();
+        mitglied.setVorname("Max");
+        mitglied.setNachname("Mustermann");
+        mitglied.setWg(exampleWG);
+        mitglied = mitgliedRepository.save(mitglied);
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/mitglied/" + mitglied.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag, "The member should be sent with an ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/mitglied/" + mitglied.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/mitglied/update/" + mitglied.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"vorname\": \"Moritz\", \"nachname\": \"Mustermann\", \"wgId\": " + exampleWG.getId() + "}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/mitglied/" + mitglied.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vorname").value("Moritz"));
+    }
+
+    /**
+     * Test that the inventory list of a WG is not sent again until an item of the WG changes.
+     */
+    @Test
+    public void testInventarListETag() throws Exception {
+        createInventar("Sofa");
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/inventar/wg/" + exampleWG.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag, "The list should be sent with an ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/inventar/wg/" + exampleWG.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        createInventar("Tisch");
+        mockMvc.perform(MockMvcRequestBuilders.get("/inventar/wg/" + exampleWG.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    private void createInventar(String name) {
+        Inventar inventar = new Inventar();
+        inventar.setName(name);
+        inventar.setPreis(100.0);
+        inventar.setKaufdatum(new Date());
+        inventar.setAbschreibungssatz(10.0);
+        inventar.setWg(exampleWG);
+        inventarRepository.save(inventar);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.wgkompass.ControllerTests;
+
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the Prometheus endpoint, which exposes the metrics of the endpoints,
+ * Hibernate, the connection pool and the dissolution calculation.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG exampleWG;
+
+    /**
+     * Sets up the test environment before each test. It clears the database and creates the needed WG.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgRepository.save(neueWG);
+    }
+
+    /**
+     * Test that the Prometheus endpoint exposes all expected metric families after some requests.
+     */
+    @Test
+    public void testPrometheusEndpoint() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/wg/" + exampleWG.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.post("/dissolve/inventory")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"wgId\": " + exampleWG.getId() + ", \"inventoryMappings\": []}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending")))
+                .andExpect(content().string(containsString("wgkompass_dissolve_seconds_bucket")));
+    }
+}
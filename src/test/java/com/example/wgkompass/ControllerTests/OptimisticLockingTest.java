@@ -0,0 +1,131 @@
+package com.example.wgkompass.ControllerTests;
+
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import com.example.wgkompass.utils.ETags;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the optimistic locking of the update endpoints, which reject an update
+ * based on an outdated version instead of overwriting the concurrent change.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OptimisticLockingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG exampleWG;
+    private Mitglied exampleMitglied;
+
+    /**
+     * Sets up the test environment before each test. It clears the database and creates the needed WG and member.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgRepository.save(neueWG);
+
+        exampleMitglied = new Mitglied();
+        exampleMitglied.setVorname("Max");
+        exampleMitglied.setNachname("Mustermann");
+        exampleMitglied.setWg(exampleWG);
+        exampleMitglied = mitgliedRepository.save(exampleMitglied);
+    }
+
+    /**
+     * Test that a PUT needs an If-Match header and is rejected once the member was changed since that version.
+     */
+    @Test
+    public void testPutRequiresCurrentVersion() throws Exception {
+        String etag = ETags.weak(exampleMitglied.getVersion());
+
+        mockMvc.perform(put("Moritz", null))
+                .andExpect(status().isPreconditionRequired());
+
+        mockMvc.perform(put("Moritz", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vorname").value("Moritz"));
+
+        // a second client still holds the first version
+        mockMvc.perform(put("Moritz Max", etag))
+                .andExpect(status().isPreconditionFailed());
+
+        Mitglied mitglied = mitgliedRepository.findById(exampleMitglied.getId()).orElseThrow();
+        assertEquals("Moritz", mitglied.getVorname(), "The outdated update should not overwrite the first one");
+        assertEquals(1, mitglied.getVersion(), "Only the first update should increment the version");
+    }
+
+    /**
+     * Test that a bulk update needs the version of every updated member and is rejected as a whole
+     * if one of them is outdated.
+     */
+    @Test
+    public void testBulkRequiresCurrentVersion() throws Exception {
+        mockMvc.perform(bulk("{\"id\": " + exampleMitglied.getId() + ", \"vorname\": \"Moritz\", \"nachname\": \"Mustermann\", \"wgId\": " + exampleWG.getId() + "}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(bulk("{\"id\": " + exampleMitglied.getId() + ", \"vorname\": \"Moritz\", \"nachname\": \"Mustermann\", \"wgId\": " + exampleWG.getId() + ", \"version\": 0}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].version").value(1));
+
+        mockMvc.perform(bulk("{\"vorname\": \"Erika\", \"nachname\": \"Musterfrau\", \"wgId\": " + exampleWG.getId() + "},"
+                        + "{\"id\": " + exampleMitglied.getId() + ", \"vorname\": \"Moritz Max\", \"nachname\": \"Mustermann\", \"wgId\": " + exampleWG.getId() + ", \"version\": 0}"))
+                .andExpect(status().isConflict());
+
+        assertEquals("Moritz", mitgliedRepository.findById(exampleMitglied.getId()).orElseThrow().getVorname(),
+                "The outdated update should not overwrite the first one");
+        assertEquals(1, mitgliedRepository.count(), "Nothing of the rejected bulk request should be saved");
+    }
+
+    private MockHttpServletRequestBuilder put(String vorname, String ifMatch) {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.put("/mitglied/update/" + exampleMitglied.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"vorname\": \"" + vorname + "\", \"nachname\": \"Mustermann\", \"wgId\": " + exampleWG.getId() + "}");
+        return ifMatch != null ? request.header(HttpHeaders.IF_MATCH, ifMatch) : request;
+    }
+
+    private MockHttpServletRequestBuilder bulk(String entries) {
+        return MockMvcRequestBuilders.post("/mitglied/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + entries + "]");
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.wgkompass.ControllerTests;
+
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the PATCH endpoints, which change single fields of an entity
+ * with one UPDATE statement and report unknown entities from the number of changed rows.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PatchUpdateTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG exampleWG;
+    private Mitglied exampleMitglied;
+
+    /**
+     * Sets up the test environment before each test. It clears the database and creates the needed WG and member.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgRepository.save(neueWG);
+
+        exampleMitglied = new Mitglied();
+        exampleMitglied.setVorname("Max");
+        exampleMitglied.setNachname("Mustermann");
+        exampleMitglied.setWg(exampleWG);
+        exampleMitglied = mitgliedRepository.save(exampleMitglied);
+    }
+
+    /**
+     * Test that a patch changes only the given field and leaves the others unchanged.
+     */
+    @Test
+    public void testPatchMitglied() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/mitglied/update/" + exampleMitglied.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"vorname\": \"Moritz\"}"))
+                .andExpect(status().isNoContent());
+
+        Mitglied mitglied = mitgliedRepository.findById(exampleMitglied.getId()).orElseThrow();
+        assertEquals("Moritz", mitglied.getVorname(), "The first name should be changed");
+        assertEquals("Mustermann", mitglied.getNachname(), "The last name should be left unchanged");
+    }
+
+    /**
+     * Test that patching an unknown member returns not found.
+     */
+    @Test
+    public void testPatchUnknownMitglied() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/mitglied/update/" + (exampleMitglied.getId() + 1000))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"vorname\": \"Moritz\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test that moving a member to an unknown WG is rejected as a bad request.
+     */
+    @Test
+    public void testPatchMitgliedToUnknownWG() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/mitglied/update/" + exampleMitglied.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"wgId\": " + (exampleWG.getId() + 1000) + "}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.wgkompass.ControllerTests;
+
+import com.example.wgkompass.config.ReplicaRoutingDataSource;
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.services.InventarService;
+import com.example.wgkompass.services.WGService;
+import com.example.wgkompass.utils.ETags;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the routing of read-only transactions to a read replica.
+ * Two embedded H2 databases stand in for the primary and the replica. The replica is not kept in sync;
+ * a test copies the primary to the replica, so changes written afterwards behave like replica lag.
+ */
+@SpringBootTest(properties = "wgkompass.datasource.replica.url=jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WGService wgService;
+
+    @Autowired
+    private InventarService inventarService;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    /**
+     * Set up method to clear the primary database before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        jdbcTemplate.update("delete from wg_statistik");
+        jdbcTemplate.update("delete from wg");
+    }
+
+    /**
+     * Test that read-only transactions use the replica and all other transactions the primary.
+     */
+    @Test
+    public void testRouting() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertEquals("REPLICA", readOnly.execute(status -> currentDatabase()), "A read-only transaction should use the replica");
+        assertEquals("WGKOMPASS", readWrite.execute(status -> currentDatabase()), "A read-write transaction should use the primary");
+        assertEquals("WGKOMPASS", currentDatabase(), "A statement outside of a transaction should use the primary");
+
+        ReplicaRoutingDataSource.requirePrimary();
+        try {
+            assertEquals("WGKOMPASS", readOnly.execute(status -> currentDatabase()), "A thread that requires the primary should not use the replica");
+        } finally {
+            ReplicaRoutingDataSource.reset();
+        }
+    }
+
+    /**
+     * Test that GET endpoints tolerating lag read from the replica, while endpoints annotated with ReadFromPrimary
+     * and updates see the changes that were not replicated yet.
+     */
+    @Test
+    public void testReplicaLagPerEndpoint() throws Exception {
+        WG wg = new WG();
+        wg.setName("Beispiel WG");
+        wg = wgService.save(wg);
+        createInventar("Sofa", wg);
+        replicate();
+        Inventar tisch = createInventar("Tisch", wg);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/inventar/wg/" + wg.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(MockMvcRequestBuilders.get("/inventar/" + tisch.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Tisch"));
+        mockMvc.perform(MockMvcRequestBuilders.put("/inventar/update/" + tisch.getId())
+                        .header(HttpHeaders.IF_MATCH, ETags.weak(tisch.getVersion()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Esstisch\", \"preis\": 90.0, \"kaufdatum\": \"2024-01-01\", \"abschreibungssatz\": 10.0, \"wgId\": " + wg.getId() + "}"))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Test that read-only transactions use the primary while the replica cannot hand out connections.
+     */
+    @Test
+    public void testFallbackToPrimary() throws SQLException {
+        DataSource unavailable = new DriverManagerDataSource("jdbc:h2:mem:unavailable;IFEXISTS=TRUE", "sa", "");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, unavailable, meterRegistry);
+        double fallbacksBefore = meterRegistry.counter("wgkompass.datasource.replica.fallback").count();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = routing.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select database()")) {
+            resultSet.next();
+            assertEquals("WGKOMPASS", resultSet.getString(1), "The primary should take over while the replica is down");
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        assertEquals(fallbacksBefore + 1, meterRegistry.counter("wgkompass.datasource.replica.fallback").count(), "The fallback should be counted");
+    }
+
+    /**
+     * Copies the schema and data of the primary to the replica.
+     */
+    private void replicate() {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("script nopasswords", String.class);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("drop all objects");
+        script.forEach(replica::execute);
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select database()", String.class);
+    }
+
+    private Inventar createInventar(String name, WG wg) {
+        Inventar inventar = new Inventar();
+        inventar.setName(name);
+        inventar.setPreis(90.0);
+        inventar.setKaufdatum(new Date());
+        inventar.setAbschreibungssatz(10.0);
+        inventar.setWg(wg);
+        return inventarService.save(inventar);
+    }
+}
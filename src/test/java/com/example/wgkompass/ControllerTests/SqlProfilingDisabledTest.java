@@ -0,0 +1,49 @@
+package com.example.wgkompass.ControllerTests;
+
+import com.example.wgkompass.services.SqlProfilerService;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the application with the SQL profiling switched off.
+ */
+@SpringBootTest(properties = "wgkompass.sql.profiling.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SqlProfilingDisabledTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Test that neither the proxy nor the profiler nor its admin endpoint exist.
+     */
+    @Test
+    public void testProfilingAbsent() throws Exception {
+        assertFalse(dataSource instanceof ProxyDataSource, "The data source should not be proxied");
+        assertEquals(0, applicationContext.getBeanNamesForType(SqlProfilerService.class).length);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/sqlqueries"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get("/wg/all"))
+                .andExpect(status().isOk());
+    }
+}
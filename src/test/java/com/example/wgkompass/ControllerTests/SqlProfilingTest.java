@@ -0,0 +1,62 @@
+package com.example.wgkompass.ControllerTests;
+
+import com.example.wgkompass.config.RequestIdFilter;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.services.WGService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the request IDs and the admin endpoint of the SQL profiler.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SqlProfilingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WGService wgService;
+
+    /**
+     * Test that the statements of a request are listed by the admin endpoint with the ID of the request.
+     */
+    @Test
+    public void testStatementsAttributedToRequest() throws Exception {
+        WG wg = new WG();
+        wg.setName("Beispiel WG");
+        wg = wgService.save(wg);
+        mockMvc.perform(MockMvcRequestBuilders.delete("/actuator/sqlqueries"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/mitglied/wg/" + wg.getId()).header(RequestIdFilter.REQUEST_ID_HEADER, "profiling-test"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestIdFilter.REQUEST_ID_HEADER, "profiling-test"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/sqlqueries").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].slowestRequestId", hasItem("profiling-test")))
+                .andExpect(jsonPath("$[*].slowestRequest", hasItem("GET /mitglied/wg/" + wg.getId())));
+    }
+
+    /**
+     * Test that a request without a valid ID gets a generated one.
+     */
+    @Test
+    public void testRequestIdGenerated() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/wg/all").header(RequestIdFilter.REQUEST_ID_HEADER, "no spaces allowed"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestIdFilter.REQUEST_ID_HEADER, matchesPattern("[0-9a-f-]{36}")));
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.wgkompass.ControllerTests;
+
+import com.example.wgkompass.TestUtils.StatementCounter;
+import com.example.wgkompass.dto.SqlQueryStatisticsDto;
+import com.example.wgkompass.models.Aufgabe;
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import com.example.wgkompass.services.InventarService;
+import com.example.wgkompass.services.WGService;
+import com.example.wgkompass.services.SqlProfilerService;
+import com.example.wgkompass.services.WGStatistikService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the number of SQL statements the endpoints run.
+ * The number of statements must not grow with the number of rows, so an N+1 regression fails these tests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StatementCountTest {
+
+    private static final int ROWS = 1000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventarService inventarService;
+
+    @Autowired
+    private WGService wgService;
+
+    @Autowired
+    private WGStatistikService wgStatistikService;
+
+    @Autowired
+    private SqlProfilerService sqlProfilerService;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG exampleWG;
+
+    /**
+     * Sets up the test environment before each test. It clears the database and creates the needed WG.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgService.save(neueWG);
+    }
+
+    /**
+     * Test that the inventory list of a WG is loaded with the ETag query and one DTO query.
+     */
+    @Test
+    public void testInventarListStatements() throws Throwable {
+        inventarRepository.saveAll(inventare(ROWS));
+
+        int statements = StatementCounter.count(() -> mockMvc.perform(MockMvcRequestBuilders.get("/inventar/wg/" + exampleWG.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROWS)));
+
+        assertTrue(statements <= 2, "Listing " + ROWS + " items should run at most 2 statements, but ran " + statements);
+    }
+
+    /**
+     * Test that the task list of a WG does not load the assigned member of every task separately.
+     */
+    @Test
+    public void testAufgabeListStatements() throws Throwable {
+        List<Mitglied> mitglieder = mitgliedRepository.saveAll(mitglieder(10));
+        List<Aufgabe> aufgaben = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Aufgabe aufgabe = new Aufgabe();
+            aufgabe.setTitel("Aufgabe " + i);
+            aufgabe.setWg(exampleWG);
+            aufgabe.setVerantwortlichesMitglied(mitglieder.get(i % mitglieder.size()));
+            aufgaben.add(aufgabe);
+        }
+        aufgabeRepository.saveAll(aufgaben);
+
+        int statements = StatementCounter.count(() -> mockMvc.perform(MockMvcRequestBuilders.get("/aufgabe/wg/" + exampleWG.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROWS)));
+
+        assertTrue(statements <= 2, "Listing " + ROWS + " tasks should run at most 2 statements, but ran " + statements);
+    }
+
+    /**
+     * Test that the member list of a WG is loaded with the ETag query and one DTO query.
+     */
+    @Test
+    public void testMitgliedListStatements() throws Throwable {
+        mitgliedRepository.saveAll(mitglieder(ROWS));
+
+        int statements = StatementCounter.count(() -> mockMvc.perform(MockMvcRequestBuilders.get("/mitglied/wg/" + exampleWG.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROWS)));
+
+        assertTrue(statements <= 2, "Listing " + ROWS + " members should run at most 2 statements, but ran " + statements);
+    }
+
+    /**
+     * Test that the overview of a WG loads each of its three lists with a single statement,
+     * while the WG itself comes from the second-level cache.
+     */
+    @Test
+    public void testOverviewStatements() throws Throwable {
+        mitgliedRepository.saveAll(mitglieder(ROWS));
+        inventarRepository.saveAll(inventare(ROWS));
+
+        int statements = StatementCounter.count(() -> mockMvc.perform(MockMvcRequestBuilders.get("/wg/" + exampleWG.getId() + "/overview"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mitglieder.length()").value(ROWS))
+                .andExpect(jsonPath("$.inventare.length()").value(ROWS)));
+
+        assertTrue(statements <= 3, "The overview should run at most 3 statements, but ran " + statements);
+    }
+
+    /**
+     * Test that the counters of a WG are read with a single statement, regardless of the size of the WG.
+     */
+    @Test
+    public void testStatistikStatements() throws Throwable {
+        mitgliedRepository.saveAll(mitglieder(ROWS));
+        inventarRepository.saveAll(inventare(ROWS));
+        // the rows were saved without the services, so the counters have to be recomputed
+        wgStatistikService.repairAll();
+
+        int statements = StatementCounter.count(() -> mockMvc.perform(MockMvcRequestBuilders.get("/wg/" + exampleWG.getId() + "/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mitglieder").value(ROWS))
+                .andExpect(jsonPath("$.inventare").value(ROWS)));
+
+        assertEquals(1, statements, "Reading the counters should run a single statement");
+    }
+
+    /**
+     * Test that dissolving a WG loads the members and the mapped items with one statement each.
+     */
+    @Test
+    public void testDissolveStatements() throws Throwable {
+        List<Mitglied> mitglieder = mitgliedRepository.saveAll(mitglieder(10));
+        List<Inventar> inventare = inventarRepository.saveAll(inventare(ROWS));
+        StringBuilder json = new StringBuilder("{\"wgId\": " + exampleWG.getId() + ", \"inventoryMappings\": [");
+        for (int i = 0; i < inventare.size(); i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"inventarId\": ").append(inventare.get(i).getId())
+                    .append(", \"mitgliedId\": ").append(mitglieder.get(i % mitglieder.size()).getId()).append("}");
+        }
+        json.append("]}");
+
+        int statements = StatementCounter.count(() -> mockMvc.perform(MockMvcRequestBuilders.post("/dissolve/inventory")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.toString()))
+                .andExpect(status().isOk()));
+
+        assertTrue(statements <= 2, "Dissolving " + ROWS + " items should run at most 2 statements, but ran " + statements);
+    }
+
+    /**
+     * Test that a batch dissolution loads the members and items of all WGs with one statement each.
+     */
+    @Test
+    public void testDissolveBatchStatements() throws Throwable {
+        StringBuilder json = new StringBuilder("[");
+        for (int w = 0; w < 50; w++) {
+            WG wg = new WG();
+            wg.setName("WG " + w);
+            exampleWG = wgRepository.save(wg);
+            List<Mitglied> mitglieder = mitgliedRepository.saveAll(mitglieder(3));
+            List<Inventar> inventare = inventarRepository.saveAll(inventare(10));
+            json.append(w == 0 ? "" : ",").append("{\"wgId\": ").append(wg.getId()).append(", \"inventoryMappings\": [");
+            for (int i = 0; i < inventare.size(); i++) {
+                json.append(i == 0 ? "" : ",")
+                        .append("{\"inventarId\": ").append(inventare.get(i).getId())
+                        .append(", \"mitgliedId\": ").append(mitglieder.get(i % mitglieder.size()).getId()).append("}");
+            }
+            json.append("]}");
+        }
+        json.append("]");
+
+        int statements = StatementCounter.count(() -> mockMvc.perform(MockMvcRequestBuilders.post("/dissolve/inventory/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.toString()))
+                .andExpect(status().isOk()));
+
+        assertTrue(statements <= 2, "Dissolving 50 WGs should run at most 2 statements, but ran " + statements);
+    }
+
+    /**
+     * Test that a bulk insert prepares the insert statement once and reuses it for every JDBC batch,
+     * instead of preparing a statement per item.
+     */
+    @Test
+    public void testSaveAllStatements() throws Throwable {
+        List<Inventar> inventare = inventare(ROWS);
+
+        int statements = StatementCounter.count(() -> inventarService.saveAll(inventare));
+
+        assertTrue(statements <= 1, "Inserting " + ROWS + " items should prepare at most 1 statements, but ran " + statements);
+    }
+
+    /**
+     * Test that a bulk insert of WGs creates their counters with one flush, which sends the inserts as one JDBC batch.
+     */
+    @Test
+    public void testSaveAllWGStatements() {
+        List<WG> wgs = new ArrayList<>();
+        // one JDBC batch holds up to hibernate.jdbc.batch_size statements
+        for (int i = 0; i < 50; i++) {
+            WG wg = new WG();
+            wg.setName("WG " + i);
+            wgs.add(wg);
+        }
+        sqlProfilerService.reset();
+
+        wgService.saveAll(wgs);
+
+        List<SqlQueryStatisticsDto> inserts = sqlProfilerService.getSlowest(100).stream()
+                .filter(q -> q.getSql().startsWith("insert into wg_statistik")).toList();
+        assertEquals(1, inserts.size(), "The counters should be inserted with one statement");
+        assertEquals(1, inserts.get(0).getCount(), "The counters of 50 WGs should be inserted as one batch");
+    }
+
+    /**
+     * Test that assigning the tasks of a WG loads only their IDs and sends all changes in one JDBC batch,
+     * which the SQL profiler records as a single execution.
+     */
+    @Test
+    public void testAssignStatements() throws Throwable {
+        mitgliedRepository.saveAll(mitglieder(10));
+        List<Aufgabe> aufgaben = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Aufgabe aufgabe = new Aufgabe();
+            aufgabe.setTitel("Aufgabe " + i);
+            aufgabe.setWg(exampleWG);
+            aufgaben.add(aufgabe);
+        }
+        aufgabeRepository.saveAll(aufgaben);
+        sqlProfilerService.reset();
+
+        int statements = StatementCounter.count(() -> mockMvc.perform(MockMvcRequestBuilders.post("/aufgabe/wg/" + exampleWG.getId() + "/assign"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reassigned").value(ROWS)));
+
+        assertTrue(statements <= 3, "Assigning " + ROWS + " tasks should run at most 3 Hibernate statements, but ran " + statements);
+        List<SqlQueryStatisticsDto> updates = sqlProfilerService.getSlowest(100).stream()
+                .filter(q -> q.getSql().startsWith("update aufgabe set verantwortliches_mitglied_id")).toList();
+        assertEquals(1, updates.size(), "The tasks should be updated with one statement");
+        assertEquals(1, updates.get(0).getCount(), "The updates of " + ROWS + " tasks should be sent as one batch");
+    }
+
+    private List<Mitglied> mitglieder(int count) {
+        List<Mitglied> mitglieder = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Mitglied mitglied = new Mitglied();
+            mitglied.setVorname("Max");
+            mitglied.setNachname("Mustermann");
+            mitglied.setWg(exampleWG);
+            mitglieder.add(mitglied);
+        }
+        return mitglieder;
+    }
+
+    private List<Inventar> inventare(int count) {
+        List<Inventar> inventare = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Inventar inventar = new Inventar();
+            inventar.setName("Inventar " + i);
+            inventar.setPreis(100.0);
+            inventar.setKaufdatum(new Date());
+            inventar.setAbschreibungssatz(10.0);
+            inventar.setWg(exampleWG);
+            inventare.add(inventar);
+        }
+        return inventare;
+    }
+}
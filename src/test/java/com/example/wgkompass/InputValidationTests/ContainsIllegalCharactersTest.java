@@ -1,6 +1,5 @@
 package com.example.wgkompass.InputValidationTests;
 
-import com.example.wgkompass.exception.InvalidRequestException;
 import com.example.wgkompass.models.Mitglied;
 import com.example.wgkompass.models.WG;
 import com.example.wgkompass.repositories.AufgabeRepository;
@@ -82,7 +81,7 @@ public class ContainsIllegalCharactersTest {
     }
 
     /**
-     * Tests the creation of a WG with illegal characters in its name. It expects a BadRequest response and a specific exception.
+     * Tests the creation of a WG with illegal characters in its name. It expects a BadRequest response with a specific message.
      */
     @Test
     public void testCreateWGWithIllegalCharacters() throws Exception {
@@ -92,8 +91,7 @@ public class ContainsIllegalCharactersTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(wgJson))
                 .andExpect(status().isBadRequest()) // 400 (Bad Request)
-                .andExpect(result -> assertTrue(result.getResolvedException() instanceof InvalidRequestException))
-                .andExpect(result -> assertEquals("Illegal characters in name", result.getResolvedException().getMessage()));
+                .andExpect(content().string("Illegal characters in name"));
     }
 
     /**
@@ -110,7 +108,7 @@ public class ContainsIllegalCharactersTest {
     }
 
     /**
-     * Tests the creation of a Mitglied with illegal characters in the name. It expects a BadRequest response and a specific exception.
+     * Tests the creation of a Mitglied with illegal characters in the name. It expects a BadRequest response with a specific message.
      */
     @Test
     public void testCreateMitgliedWithIllegalCharacters() throws Exception {
@@ -120,8 +118,7 @@ public class ContainsIllegalCharactersTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mitgliedJson))
                 .andExpect(status().isBadRequest()) //  400 (Bad Request)
-                .andExpect(result -> assertTrue(result.getResolvedException() instanceof InvalidRequestException))
-                .andExpect(result -> assertEquals("Illegal characters in name", result.getResolvedException().getMessage()));
+                .andExpect(content().string("Illegal characters in name"));
     }
 
     /**
@@ -138,7 +135,7 @@ public class ContainsIllegalCharactersTest {
     }
 
     /**
-     * Tests the creation of an Inventar item with illegal characters in the name. It expects a BadRequest response and a specific exception.
+     * Tests the creation of an Inventar item with illegal characters in the name. It expects a BadRequest response with a specific message.
      */
     @Test
     public void testCreateInventarWithIllegalCharacters() throws Exception {
@@ -148,8 +145,7 @@ public class ContainsIllegalCharactersTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(inventarJson))
                 .andExpect(status().isBadRequest()) // 400 (Bad Request)
-                .andExpect(result -> assertTrue(result.getResolvedException() instanceof InvalidRequestException))
-                .andExpect(result -> assertEquals("Illegal characters in name", result.getResolvedException().getMessage()));
+                .andExpect(content().string("Illegal characters in name"));
     }
 
     /**
@@ -166,7 +162,7 @@ public class ContainsIllegalCharactersTest {
     }
 
     /**
-     * Tests the creation of an Aufgabe with illegal characters in the title. It expects a BadRequest response and a specific exception.
+     * Tests the creation of an Aufgabe with illegal characters in the title. It expects a BadRequest response with a specific message.
      */
     @Test
     public void testCreateAufgabeWithIllegalCharacters() throws Exception {
@@ -176,8 +172,7 @@ public class ContainsIllegalCharactersTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(aufgabeJson))
                 .andExpect(status().isBadRequest()) //  400 (Bad Request)
-                .andExpect(result -> assertTrue(result.getResolvedException() instanceof InvalidRequestException))
-                .andExpect(result -> assertEquals("Illegal characters in name", result.getResolvedException().getMessage()));
+                .andExpect(content().string("Illegal characters in name"));
     }
 
     /**
@@ -193,4 +188,28 @@ public class ContainsIllegalCharactersTest {
                 .andExpect(status().isOk()); //  200 OK
     }
 
+    /**
+     * Tests the bulk creation of WGs where one name contains illegal characters. It expects a BadRequest response with a specific message.
+     */
+    @Test
+    public void testBulkCreateWGWithIllegalCharacters() throws Exception {
+        String wgJson = "[{\"name\": \"Gültiger Name\"}, {\"name\": \"Ungültige Zeichen @\"}]";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/wg/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(wgJson))
+                .andExpect(status().isBadRequest()) // 400 (Bad Request)
+                .andExpect(content().string("Illegal characters in name"));
+    }
+
+    /**
+     * Tests the creation of a WG with an empty name, which is rejected like before. It expects a BadRequest response.
+     */
+    @Test
+    public void testCreateWGWithEmptyName() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/wg/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"\"}"))
+                .andExpect(status().isBadRequest()); // 400 (Bad Request)
+    }
 }
@@ -0,0 +1,37 @@
+package com.example.wgkompass.InputValidationTests;
+
+import com.example.wgkompass.utils.ValidationUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for the character scanner of ValidationUtils, which has to accept
+ * exactly the strings accepted by the regular expression it replaced.
+ */
+public class ValidationUtilsTest {
+
+    private static final String LEGAL_TEXT_REGEX = "^[a-zA-ZäöüÄÖÜ0-9\\s]+$";
+
+    /**
+     * Tests every character of the Basic Multilingual Plane on its own and within legal text.
+     */
+    @Test
+    public void testScannerMatchesRegex() {
+        for (char c = 0; c < Character.MAX_VALUE; c++) {
+            for (String input : new String[]{String.valueOf(c), "Name " + c, c + " 1"}) {
+                assertEquals(!input.matches(LEGAL_TEXT_REGEX), ValidationUtils.containsIllegalCharacters(input),
+                        "The scanner should decide like the regex for character " + (int) c);
+            }
+        }
+    }
+
+    /**
+     * Tests the special cases of null and empty strings.
+     */
+    @Test
+    public void testNullAndEmpty() {
+        assertFalse(ValidationUtils.containsIllegalCharacters(null), "Null should be legal");
+        assertTrue(ValidationUtils.containsIllegalCharacters(""), "An empty string should be illegal");
+    }
+}
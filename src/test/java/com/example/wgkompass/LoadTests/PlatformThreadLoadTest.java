@@ -0,0 +1,20 @@
+package com.example.wgkompass.LoadTests;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Load test of the request handling on Tomcat's pool of platform threads.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.wgkompass.TestUtils.SlowStatementInspector"
+})
+@ActiveProfiles("test")
+public class PlatformThreadLoadTest extends ThreadModelLoadTest {
+
+    @Override
+    protected String threadModel() {
+        return "platform threads";
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.wgkompass.LoadTests;
+
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Base class of the load tests comparing the thread models of the request handling.
+ * Every statement is delayed by the SlowStatementInspector to simulate slow MySQL responses, then many clients
+ * request the inventory list of a WG at the same time and the throughput and latencies are printed.
+ * The load tests only run when the system property "loadtest" is set:
+ * mvn test -Dtest='*LoadTest' -Dloadtest=true
+ * The number of requests, the number of concurrent clients and the latency per statement in milliseconds
+ * can be changed with "loadtest.requests", "loadtest.clients" and "loadtest.latency".
+ */
+public abstract class ThreadModelLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 5000);
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 500);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG exampleWG;
+
+    /**
+     * Returns the name of the thread model under test, which is printed with the results.
+     *
+     * @return The name of the thread model.
+     */
+    protected abstract String threadModel();
+
+    /**
+     * Sets up the test environment before each test. It clears the database and creates a WG with some items.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgRepository.save(neueWG);
+
+        List<Inventar> inventare = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Inventar inventar = new Inventar();
+            inventar.setName("Inventar " + i);
+            inventar.setPreis(100.0);
+            inventar.setKaufdatum(new Date());
+            inventar.setAbschreibungssatz(10.0);
+            inventar.setWg(exampleWG);
+            inventare.add(inventar);
+        }
+        inventarRepository.saveAll(inventare);
+    }
+
+    /**
+     * Sends the requests from the concurrent clients and prints the throughput and the latency percentiles.
+     * Rejected requests are counted separately and do not fail the test.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "loadtest", matches = "true")
+    public void testThroughput() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/inventar/wg/" + exampleWG.getId())).build();
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clients.submit(() -> {
+                for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+                    long sent = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    latencies[i] = System.nanoTime() - sent;
+                    if (response.statusCode() != 200) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d requests from %d clients in %d ms, %.1f requests/s, p50 %d ms, p99 %d ms, %d not OK%n",
+                threadModel(), REQUESTS, CLIENTS, elapsed / 1_000_000, REQUESTS * 1e9 / elapsed,
+                latencies[REQUESTS / 2] / 1_000_000, latencies[REQUESTS * 99 / 100] / 1_000_000, rejected.get());
+        assertTrue(rejected.get() < REQUESTS, "At least some requests should succeed");
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.wgkompass.LoadTests;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Load test of the request handling on virtual threads, which needs Java 21 or newer.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.wgkompass.TestUtils.SlowStatementInspector"
+})
+@ActiveProfiles("test")
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class VirtualThreadLoadTest extends ThreadModelLoadTest {
+
+    @Override
+    protected String threadModel() {
+        return "virtual threads";
+    }
+}
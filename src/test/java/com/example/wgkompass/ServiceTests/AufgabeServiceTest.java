@@ -1,5 +1,8 @@
 package com.example.wgkompass.ServiceTests;
 
+import com.example.wgkompass.dto.AssignmentResultDto;
+import com.example.wgkompass.dto.AufgabeDto;
+import com.example.wgkompass.exception.InvalidRequestException;
 import com.example.wgkompass.models.Aufgabe;
 import com.example.wgkompass.models.Mitglied;
 import com.example.wgkompass.models.WG;
@@ -7,6 +10,7 @@ import com.example.wgkompass.repositories.AufgabeRepository;
 import com.example.wgkompass.repositories.InventarRepository;
 import com.example.wgkompass.repositories.MitgliedRepository;
 import com.example.wgkompass.repositories.WGRepository;
+import com.example.wgkompass.services.AssignmentScope;
 import com.example.wgkompass.services.AufgabeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,7 +19,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -136,4 +143,121 @@ public class AufgabeServiceTest {
         assertEquals(2, returnedAufgabeList.size(), "The size of the returned Aufgaben list should be 2");
     }
 
-}
\ No newline at end of file
+    /**
+     * Test for retrieving the Aufgaben of a WG as DTOs, including tasks without a responsible member.
+     */
+    @Test
+    public void testGetDtosByWgId() {
+        Aufgabe zugewiesen = new Aufgabe();
+        zugewiesen.setTitel("Aufgabe 1");
+        zugewiesen.setWg(exampleWG);
+        zugewiesen.setVerantwortlichesMitglied(exampleMitglied);
+        aufgabeRepository.save(zugewiesen);
+        Aufgabe offen = new Aufgabe();
+        offen.setTitel("Aufgabe 2");
+        offen.setWg(exampleWG);
+        aufgabeRepository.save(offen);
+
+        List<AufgabeDto> aufgabeDtos = aufgabeService.getDtosByWgId(exampleWG.getId());
+        assertEquals(2, aufgabeDtos.size(), "Tasks without a responsible member should be returned too");
+        assertEquals(exampleWG.getId(), aufgabeDtos.get(0).getWgId(), "The DTO should contain the WG ID");
+        assertEquals(exampleMitglied.getId(), aufgabeDtos.get(0).getVerantwortlichesMitgliedId(), "The DTO should contain the responsible member ID");
+        assertNull(aufgabeDtos.get(1).getVerantwortlichesMitgliedId(), "The unassigned task should have no responsible member");
+        assertEquals(1, aufgabeService.getDtoPageByWgId(exampleWG.getId(), 0, 1).size(), "A page should be limited to the page size");
+    }
+
+    /**
+     * Test for changing single fields and the responsible member of a task without loading it.
+     */
+    @Test
+    public void testPatchAufgabe() {
+        Aufgabe aufgabe = new Aufgabe();
+        aufgabe.setTitel("Putzen");
+        aufgabe.setBeschreibung("Bad putzen");
+        aufgabe.setWg(exampleWG);
+        aufgabe = aufgabeService.save(aufgabe);
+
+        AufgabeDto changes = new AufgabeDto(null, "Kochen", null, null, exampleMitglied.getId(), null);
+        assertTrue(aufgabeService.patch(aufgabe.getId(), changes), "An existing task should be changed");
+
+        AufgabeDto patched = aufgabeService.getDtoById(aufgabe.getId()).orElseThrow();
+        assertEquals("Kochen", patched.getTitel(), "The title should be changed");
+        assertEquals("Bad putzen", patched.getBeschreibung(), "The description should be left unchanged");
+        assertEquals(exampleMitglied.getId(), patched.getVerantwortlichesMitgliedId(), "The responsible member should be changed");
+        assertEquals(1L, aufgabeService.getVersion(aufgabe.getId()).orElseThrow(), "The version should be incremented");
+        assertFalse(aufgabeService.patch(aufgabe.getId() + 1000, changes), "An unknown task should not be changed");
+    }
+
+    /**
+     * Test that unassigned tasks are spread so every member ends up with the same number of tasks,
+     * counting the tasks they are already responsible for.
+     */
+    @Test
+    public void testAssignUnassigned() {
+        Mitglied anna = createMitglied("Anna");
+        Mitglied tom = createMitglied("Tom");
+        createAufgaben(2, exampleMitglied);
+        List<Aufgabe> offen = createAufgaben(7, null);
+
+        AssignmentResultDto result = aufgabeService.assign(exampleWG.getId(), AssignmentScope.UNASSIGNED).orElseThrow();
+
+        assertEquals(7, result.getReassigned(), "Every unassigned task should get a member");
+        assertEquals(List.of(3L, 3L, 3L), result.getLoads().stream().map(AssignmentResultDto.MemberLoad::getAufgaben).toList(),
+                "Every member should be responsible for three tasks");
+        Map<Long, Long> loads = aufgabeService.getDtosByWgId(exampleWG.getId()).stream()
+                .collect(Collectors.groupingBy(AufgabeDto::getVerantwortlichesMitgliedId, Collectors.counting()));
+        assertEquals(Map.of(exampleMitglied.getId(), 3L, anna.getId(), 3L, tom.getId(), 3L), loads, "The assignment should be saved");
+        assertEquals(1L, aufgabeService.getVersion(offen.get(0).getId()).orElseThrow(), "The version of an assigned task should be incremented");
+    }
+
+    /**
+     * Test that all tasks are spread anew and tasks keeping their member are not updated.
+     */
+    @Test
+    public void testAssignAll() {
+        Mitglied anna = createMitglied("Anna");
+        List<Aufgabe> aufgaben = createAufgaben(5, exampleMitglied);
+
+        AssignmentResultDto result = aufgabeService.assign(exampleWG.getId(), AssignmentScope.ALL).orElseThrow();
+
+        assertEquals(2, result.getReassigned(), "Only the tasks moving to Anna should be updated");
+        assertEquals(3L, result.getLoads().get(0).getAufgaben(), "Max should keep three tasks");
+        assertEquals(2L, result.getLoads().get(1).getAufgaben(), "Anna should take over two tasks");
+        assertEquals(anna.getId(), aufgabeService.getDtoById(aufgaben.get(1).getId()).orElseThrow().getVerantwortlichesMitgliedId(),
+                "The second task should go to Anna");
+        assertEquals(0L, aufgabeService.getVersion(aufgaben.get(0).getId()).orElseThrow(), "A task keeping its member should not be updated");
+    }
+
+    /**
+     * Test that the assignment is rejected for a WG without members and not found for an unknown WG.
+     */
+    @Test
+    public void testAssignWithoutMembers() {
+        WG leereWG = new WG();
+        leereWG.setName("Leere WG");
+        Long leereWgId = wgRepository.save(leereWG).getId();
+
+        assertThrows(InvalidRequestException.class, () -> aufgabeService.assign(leereWgId, AssignmentScope.ALL), "A WG without members should be rejected");
+        assertTrue(aufgabeService.assign(leereWgId + 1000, AssignmentScope.ALL).isEmpty(), "An unknown WG should not be found");
+    }
+
+    private Mitglied createMitglied(String vorname) {
+        Mitglied mitglied = new Mitglied();
+        mitglied.setVorname(vorname);
+        mitglied.setNachname("Mustermann");
+        mitglied.setWg(exampleWG);
+        return mitgliedRepository.save(mitglied);
+    }
+
+    private List<Aufgabe> createAufgaben(int count, Mitglied verantwortlich) {
+        List<Aufgabe> aufgaben = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Aufgabe aufgabe = new Aufgabe();
+            aufgabe.setTitel("Aufgabe " + i);
+            aufgabe.setWg(exampleWG);
+            aufgabe.setVerantwortlichesMitglied(verantwortlich);
+            aufgaben.add(aufgabe);
+        }
+        return aufgabeRepository.saveAll(aufgaben);
+    }
+}
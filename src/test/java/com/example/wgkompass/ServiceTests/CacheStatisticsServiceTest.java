@@ -0,0 +1,108 @@
+package com.example.wgkompass.ServiceTests;
+
+import com.example.wgkompass.dto.CacheStatisticsDto;
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import com.example.wgkompass.services.CacheStatisticsService;
+import com.example.wgkompass.services.MitgliedService;
+import com.example.wgkompass.services.WGService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the second-level cache of WG and Mitglied and its statistics.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class CacheStatisticsServiceTest {
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private WGService wgService;
+
+    @Autowired
+    private MitgliedService mitgliedService;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG exampleWG;
+
+    /**
+     * Set up method to clear the database before each test
+     * and create the needed wg.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgRepository.save(neueWG);
+    }
+
+    /**
+     * Test that a WG is read from the cache and that the cache is updated when the WG is saved.
+     */
+    @Test
+    public void testWGCache() {
+        long hitsBefore = cacheStatisticsService.getStatistics().getSecondLevelCacheHits();
+        wgService.getById(exampleWG.getId());
+        wgService.getById(exampleWG.getId());
+        assertTrue(cacheStatisticsService.getStatistics().getSecondLevelCacheHits() > hitsBefore, "Reading a cached WG should be a cache hit");
+
+        exampleWG.setName("Neue WG");
+        wgService.save(exampleWG);
+        assertEquals("Neue WG", wgService.getById(exampleWG.getId()).orElseThrow().getName(), "Saving a WG should update the cache");
+    }
+
+    /**
+     * Test that the members of a WG are read from the query cache until a member is saved.
+     */
+    @Test
+    public void testMitgliederQueryCache() {
+        createMitglied("Max");
+        mitgliedService.getAllByWgId(exampleWG.getId());
+        long hitsBefore = cacheStatisticsService.getStatistics().getQueryCacheHits();
+        assertEquals(1, mitgliedService.getAllByWgId(exampleWG.getId()).size());
+        assertTrue(cacheStatisticsService.getStatistics().getQueryCacheHits() > hitsBefore, "Repeating the query should be a cache hit");
+
+        createMitglied("Anna");
+        assertEquals(2, mitgliedService.getAllByWgId(exampleWG.getId()).size(), "Saving a member should invalidate the cached query");
+        assertTrue(cacheStatisticsService.getStatistics().getRegions().stream()
+                .anyMatch(region -> region.getName().equals("mitglieder-by-wg")), "The query cache region should be listed");
+    }
+
+    private void createMitglied(String vorname) {
+        Mitglied mitglied = new Mitglied();
+        mitglied.setVorname(vorname);
+        mitglied.setNachname("Mustermann");
+        mitglied.setWg(exampleWG);
+        mitgliedService.save(mitglied);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.wgkompass.ServiceTests;
+
+import com.example.wgkompass.dto.DissolveInventoryDto;
+import com.example.wgkompass.dto.DissolveResultDto;
+import com.example.wgkompass.exception.InvalidRequestException;
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import com.example.wgkompass.services.DissolveService;
+import com.example.wgkompass.services.SettlementMode;
+import com.example.wgkompass.services.ValuationService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+
+/**
+ * Test class for DissolveService.
+ * This class includes tests for the calculation of financial obligations when a WG is dissolved.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class DissolveServiceTest {
+    @Autowired
+    private DissolveService dissolveService;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private ValuationService valuationService;
+
+    private WG exampleWG;
+    private Mitglied max;
+    private Mitglied anna;
+    private Mitglied tom;
+
+    /**
+     * Set up method to clear the database before each test
+     * and create the needed wg and mitglieder.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        // create WG
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgRepository.save(neueWG);
+
+        max = createMitglied("Max", exampleWG);
+        anna = createMitglied("Anna", exampleWG);
+        tom = createMitglied("Tom", exampleWG);
+    }
+
+    /**
+     * Test for the pairwise obligations when two members take over inventory items.
+     */
+    @Test
+    public void testDissolveInventory() {
+        Inventar sofa = createInventar("Sofa", 300.0, exampleWG);
+        Inventar tisch = createInventar("Tisch", 90.0, exampleWG);
+
+        DissolveResultDto result = dissolveService.dissolve(new DissolveInventoryDto(exampleWG.getId(), List.of(
+                new DissolveInventoryDto.InventoryMemberMapping(sofa.getId(), max.getId()),
+                new DissolveInventoryDto.InventoryMemberMapping(tisch.getId(), anna.getId()))), SettlementMode.PAIRWISE);
+
+        assertEquals(2, result.getInventoryValues().size(), "Every mapped item should have a current value");
+        assertEquals(4, result.getObligations().size(), "Each of the two payers should owe the two other members");
+        assertEquals(100.0, amountOwed(result, max, anna), 1e-9, "Max should owe Anna a third of the sofa");
+        assertEquals(100.0, amountOwed(result, max, tom), 1e-9, "Max should owe Tom a third of the sofa");
+        assertEquals(30.0, amountOwed(result, anna, max), 1e-9, "Anna should owe Max a third of the table");
+        assertEquals(30.0, amountOwed(result, anna, tom), 1e-9, "Anna should owe Tom a third of the table");
+    }
+
+    /**
+     * Test for the net settlement, which should need fewer transfers than the pairwise obligations.
+     */
+    @Test
+    public void testDissolveInventoryNetSettlement() {
+        Inventar sofa = createInventar("Sofa", 300.0, exampleWG);
+        Inventar tisch = createInventar("Tisch", 90.0, exampleWG);
+
+        DissolveResultDto result = dissolveService.dissolve(new DissolveInventoryDto(exampleWG.getId(), List.of(
+                new DissolveInventoryDto.InventoryMemberMapping(sofa.getId(), max.getId()),
+                new DissolveInventoryDto.InventoryMemberMapping(tisch.getId(), anna.getId()))), SettlementMode.NET);
+
+        // everyone's share is 130: Max took 300, Anna took 90 and Tom took nothing
+        assertEquals(2, result.getObligations().size(), "Two transfers should settle all balances");
+        assertEquals(40.0, amountOwed(result, max, anna), 1e-9, "Max should pay Anna the difference to her share");
+        assertEquals(130.0, amountOwed(result, max, tom), 1e-9, "Max should pay Tom his full share");
+    }
+
+    /**
+     * Test that a streamed request results in the same obligations as a bound request.
+     */
+    @Test
+    public void testDissolveInventoryStream() throws IOException {
+        Inventar sofa = createInventar("Sofa", 300.0, exampleWG);
+        Inventar tisch = createInventar("Tisch", 90.0, exampleWG);
+        String json = "{\"wgId\": " + exampleWG.getId() + ", \"inventoryMappings\": ["
+                + "{\"inventarId\": " + sofa.getId() + ", \"mitgliedId\": " + max.getId() + "},"
+                + "{\"inventarId\": " + tisch.getId() + ", \"mitgliedId\": " + anna.getId() + "}]}";
+
+        DissolveResultDto result = dissolveService.dissolveStream(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), SettlementMode.PAIRWISE);
+
+        assertEquals(4, result.getObligations().size(), "Each of the two payers should owe the two other members");
+        assertEquals(100.0, amountOwed(result, max, tom), 1e-9, "Max should owe Tom a third of the sofa");
+        assertEquals(30.0, amountOwed(result, anna, tom), 1e-9, "Anna should owe Tom a third of the table");
+    }
+
+    /**
+     * Test that inventory items of another WG are rejected.
+     */
+    @Test
+    public void testDissolveInventoryOfOtherWG() {
+        WG andereWG = new WG();
+        andereWG.setName("Andere WG");
+        andereWG = wgRepository.save(andereWG);
+        Inventar fremdesSofa = createInventar("Sofa", 300.0, andereWG);
+
+        DissolveInventoryDto dto = new DissolveInventoryDto(exampleWG.getId(), List.of(
+                new DissolveInventoryDto.InventoryMemberMapping(fremdesSofa.getId(), max.getId())));
+
+        assertThrows(InvalidRequestException.class, () -> dissolveService.dissolve(dto, SettlementMode.PAIRWISE), "Items of another WG should be rejected");
+    }
+
+    /**
+     * Test that a batch of dissolutions writes one result per WG with the same obligations as single requests.
+     */
+    @Test
+    public void testDissolveBatch() throws IOException {
+        WG andereWG = new WG();
+        andereWG.setName("Andere WG");
+        andereWG = wgRepository.save(andereWG);
+        Mitglied lea = createMitglied("Lea", andereWG);
+        Mitglied ben = createMitglied("Ben", andereWG);
+        Inventar sofa = createInventar("Sofa", 300.0, exampleWG);
+        Inventar regal = createInventar("Regal", 50.0, andereWG);
+
+        List<DissolveService.Dissolution> dissolutions = dissolveService.prepareBatch(List.of(
+                new DissolveInventoryDto(exampleWG.getId(), List.of(new DissolveInventoryDto.InventoryMemberMapping(sofa.getId(), max.getId()))),
+                new DissolveInventoryDto(andereWG.getId(), List.of(new DissolveInventoryDto.InventoryMemberMapping(regal.getId(), lea.getId())))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dissolveService.writeBatch(dissolutions, SettlementMode.PAIRWISE, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length, "There should be one line per WG");
+        for (String line : lines) {
+            JsonNode result = objectMapper.readTree(line);
+            if (result.get("wgId").asLong() == exampleWG.getId()) {
+                assertEquals(2, result.get("obligations").size(), "Max should owe the two other members of his WG");
+                assertEquals(100.0, result.get("obligations").get(0).get("amount").asDouble(), 1e-9, "Max should owe a third of the sofa");
+            } else {
+                assertEquals(andereWG.getId(), result.get("wgId").asLong(), "Every result should belong to a WG of the batch");
+                assertEquals(1, result.get("obligations").size(), "Lea should only owe Ben");
+                assertEquals(ben.getId(), result.get("obligations").get(0).get("recipientId").asLong(), "Lea should owe Ben");
+                assertEquals(25.0, result.get("obligations").get(0).get("amount").asDouble(), 1e-9, "Lea should owe Ben half of the shelf");
+            }
+        }
+    }
+
+    /**
+     * Test that a WG whose calculation fails gets an error line, while the results of the other WGs are still written.
+     */
+    @Test
+    public void testDissolveBatchWithFailure() throws IOException {
+        WG andereWG = new WG();
+        andereWG.setName("Andere WG");
+        andereWG = wgRepository.save(andereWG);
+        Mitglied lea = createMitglied("Lea", andereWG);
+        Inventar sofa = createInventar("Sofa", 300.0, exampleWG);
+        Inventar regal = createInventar("Regal", 50.0, andereWG);
+
+        List<DissolveService.Dissolution> dissolutions = dissolveService.prepareBatch(List.of(
+                new DissolveInventoryDto(exampleWG.getId(), List.of(new DissolveInventoryDto.InventoryMemberMapping(sofa.getId(), max.getId()))),
+                new DissolveInventoryDto(andereWG.getId(), List.of(new DissolveInventoryDto.InventoryMemberMapping(regal.getId(), lea.getId())))));
+        // the calculation of whichever WG comes second fails
+        doCallRealMethod().doThrow(new IllegalStateException("Valuation failed")).when(valuationService).forDate(any(), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dissolveService.writeBatch(dissolutions, SettlementMode.PAIRWISE, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length, "There should be one line per WG");
+        Set<Long> wgIds = new HashSet<>();
+        int errors = 0;
+        for (String line : lines) {
+            JsonNode result = objectMapper.readTree(line);
+            wgIds.add(result.get("wgId").asLong());
+            if (result.has("error")) {
+                errors++;
+                assertFalse(result.has("obligations"), "An error line should carry no result");
+            }
+        }
+        assertEquals(1, errors, "Only the failed WG should get an error line");
+        assertEquals(Set.of(exampleWG.getId(), andereWG.getId()), wgIds, "Every WG of the batch should get a line");
+    }
+
+    /**
+     * Test that a batch is rejected as a whole if one of its requests maps an item of another WG.
+     */
+    @Test
+    public void testDissolveBatchOfOtherWG() {
+        WG andereWG = new WG();
+        andereWG.setName("Andere WG");
+        andereWG = wgRepository.save(andereWG);
+        Inventar sofa = createInventar("Sofa", 300.0, exampleWG);
+        Inventar fremdesSofa = createInventar("Sofa", 300.0, andereWG);
+
+        List<DissolveInventoryDto> dtos = List.of(
+                new DissolveInventoryDto(exampleWG.getId(), List.of(new DissolveInventoryDto.InventoryMemberMapping(sofa.getId(), max.getId()))),
+                new DissolveInventoryDto(exampleWG.getId(), List.of(new DissolveInventoryDto.InventoryMemberMapping(fremdesSofa.getId(), anna.getId()))));
+
+        assertThrows(InvalidRequestException.class, () -> dissolveService.prepareBatch(dtos), "A batch with an item of another WG should be rejected");
+    }
+
+    private Mitglied createMitglied(String vorname, WG wg) {
+        Mitglied mitglied = new Mitglied();
+        mitglied.setVorname(vorname);
+        mitglied.setNachname("Mustermann");
+        mitglied.setWg(wg);
+        return mitgliedRepository.save(mitglied);
+    }
+
+    private Inventar createInventar(String name, double preis, WG wg) {
+        Inventar inventar = new Inventar();
+        inventar.setName(name);
+        inventar.setPreis(preis);
+        inventar.setKaufdatum(new Date());
+        inventar.setAbschreibungssatz(10.0);
+        inventar.setWg(wg);
+        return inventarRepository.save(inventar);
+    }
+
+    private double amountOwed(DissolveResultDto result, Mitglied payer, Mitglied recipient) {
+        return result.getObligations().stream()
+                .filter(o -> o.getPayerId().equals(payer.getId()) && o.getRecipientId().equals(recipient.getId()))
+                .mapToDouble(DissolveResultDto.MemberFinancialObligation::getAmount)
+                .sum();
+    }
+}
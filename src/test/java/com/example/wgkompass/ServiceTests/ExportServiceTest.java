@@ -0,0 +1,96 @@
+package com.example.wgkompass.ServiceTests;
+
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import com.example.wgkompass.services.ExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ExportService.
+ * This class includes tests for the NDJSON export of entities.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ExportServiceTest {
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG exampleWG;
+
+    /**
+     * Set up method to clear the database before each test
+     * and create the needed wg.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        // create WG
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgRepository.save(neueWG);
+    }
+
+    /**
+     * Test that every inventory item is written as one JSON line, ordered by ID.
+     */
+    @Test
+    public void testExportInventar() throws IOException {
+        for (String name : new String[]{"Sofa", "Tisch", "Lampe"}) {
+            Inventar inventar = new Inventar();
+            inventar.setName(name);
+            inventar.setPreis(100.0);
+            inventar.setKaufdatum(new Date());
+            inventar.setAbschreibungssatz(10.0);
+            inventar.setWg(exampleWG);
+            inventarRepository.save(inventar);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportInventar(out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertEquals(3, lines.length, "Every inventory item should be written as one line");
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Sofa", first.get("name").asText(), "The items should be ordered by ID");
+        assertEquals(exampleWG.getId(), first.get("wgId").asLong(), "The line should contain the WG ID");
+    }
+}
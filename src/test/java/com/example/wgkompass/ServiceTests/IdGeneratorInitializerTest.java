@@ -0,0 +1,59 @@
+package com.example.wgkompass.ServiceTests;
+
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.services.WGService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for IdGeneratorInitializer.
+ * The application starts against a database that already contains WGs with auto-increment IDs
+ * but no id_generator table, like on the first deployment of the table generators.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + IdGeneratorInitializerTest.URL)
+@ActiveProfiles("test")
+public class IdGeneratorInitializerTest {
+
+    static final String URL = "jdbc:h2:mem:legacy;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static final long HIGHEST_EXISTING_ID = 120;
+
+    @Autowired
+    private WGService wgService;
+
+    /**
+     * Creates the WG table with existing rows before the application starts.
+     */
+    @BeforeAll
+    public static void createExistingRows() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+            statement.execute("create table wg (id bigint not null primary key, version bigint not null, name varchar(255))");
+            statement.execute("insert into wg (id, version, name) values (1, 0, 'Alte WG'), (" + HIGHEST_EXISTING_ID + ", 0, 'Neuere WG')");
+        }
+    }
+
+    /**
+     * Test that the first generated ID is above the IDs that existed before the start.
+     */
+    @Test
+    public void testFirstGeneratedIdAboveExistingIds() {
+        WG wg = new WG();
+        wg.setName("Neue WG");
+
+        WG saved = wgService.save(wg);
+
+        assertTrue(saved.getId() > HIGHEST_EXISTING_ID, "The first generated ID should be above the existing IDs, but was " + saved.getId());
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.wgkompass.ServiceTests;
 
+import com.example.wgkompass.dto.InventarDto;
+import com.example.wgkompass.exception.InvalidRequestException;
 import com.example.wgkompass.models.Inventar;
 import com.example.wgkompass.models.WG;
 import com.example.wgkompass.repositories.AufgabeRepository;
@@ -11,11 +13,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +45,9 @@ public class InventarServiceTest {
     @Autowired
     private AufgabeRepository aufgabeRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     private WG exampleWG;
 
     /**
@@ -150,4 +159,68 @@ public class InventarServiceTest {
         List<Inventar> returnedInventarList = (List<Inventar>) inventarService.getAll();
         assertEquals(2, returnedInventarList.size(), "The number of retrieved inventory items should be 2");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test for creating and updating many inventory items at once.
+     */
+    @Test
+    public void testSaveAllInventar() {
+        List<Inventar> inventare = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Inventar inventar = new Inventar();
+            inventar.setName("Inventar " + i);
+            inventar.setPreis(10.0 * i);
+            inventar.setKaufdatum(new Date());
+            inventar.setAbschreibungssatz(1.0);
+            inventar.setWg(exampleWG);
+            inventare.add(inventar);
+        }
+        List<Inventar> savedInventare = inventarService.saveAll(inventare);
+        assertEquals(300, inventarRepository.count(), "All inventory items should be created");
+
+        // update a detached copy, which still carries the initial version
+        Inventar update = new Inventar();
+        update.setId(savedInventare.get(0).getId());
+        update.setName("Sofa");
+        update.setPreis(500.0);
+        update.setKaufdatum(new Date());
+        update.setAbschreibungssatz(1.0);
+        update.setWg(exampleWG);
+        inventarService.saveAll(List.of(update));
+        Inventar dbInventar = inventarRepository.findById(update.getId()).get();
+        assertEquals("Sofa", dbInventar.getName(), "The inventory item should be updated");
+        assertEquals(1, dbInventar.getVersion(), "The update should increment the version");
+
+        // the copy still carries the initial version, so a second update would overwrite the first one
+        update.setName("Couch");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> inventarService.saveAll(List.of(update)), "Outdated versions should be rejected");
+        assertEquals("Sofa", inventarRepository.findById(update.getId()).get().getName(), "The rejected update should not be saved");
+
+        Inventar unknown = new Inventar();
+        unknown.setId(dbInventar.getId() + 1000);
+        assertThrows(InvalidRequestException.class, () -> inventarService.saveAll(List.of(unknown)), "Unknown IDs should be rejected");
+    }
+
+    /**
+     * Test that a patch of the price does not leave a stale copy of the item in the persistence context,
+     * so the item read later in the same transaction carries the new price.
+     */
+    @Test
+    public void testPatchInventarInTransaction() {
+        Inventar inventar = new Inventar();
+        inventar.setName("Sofa");
+        inventar.setPreis(100.0);
+        inventar.setKaufdatum(new Date());
+        inventar.setAbschreibungssatz(1.0);
+        inventar.setWg(exampleWG);
+        Long id = inventarService.save(inventar).getId();
+
+        Inventar patched = transactionTemplate.execute(status -> {
+            assertTrue(inventarService.patch(id, new InventarDto(null, null, 250.0, null, null, null, null)), "The item should be changed");
+            return inventarRepository.findById(id).get();
+        });
+        assertEquals(250.0, patched.getPreis(), "The item read after the patch should carry the new price");
+        assertFalse(inventarService.patch(id + 1000, new InventarDto(null, null, 250.0, null, null, null, null)),
+                "Patching an unknown item should report that nothing was changed");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.wgkompass.ServiceTests;
+
+import com.example.wgkompass.config.RequestIdFilter;
+import com.example.wgkompass.dto.SqlQueryStatisticsDto;
+import com.example.wgkompass.services.SqlProfilerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SqlProfilerService.
+ * This class includes tests for the normalization and aggregation of statements and for the slow statement log.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+public class SqlProfilerServiceTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Autowired
+    private SqlProfilerService sqlProfilerService;
+
+    /**
+     * Set up method to remove the statistics of the statements run so far.
+     */
+    @BeforeEach
+    public void setUp() {
+        sqlProfilerService.reset();
+    }
+
+    /**
+     * Test that statements differing only in their literals and IN lists share their statistics.
+     */
+    @Test
+    public void testNormalizedStatistics() {
+        sqlProfilerService.record("select * from inventar i1_0 where i1_0.wg_id = 3 and i1_0.name = 'Sofa'", 2 * MILLIS);
+        sqlProfilerService.record("select *   from inventar i1_0\nwhere i1_0.wg_id = 12 and i1_0.name = 'Tisch'", 4 * MILLIS);
+        sqlProfilerService.record("select * from mitglied where id in (?, ?, ?)", MILLIS);
+        sqlProfilerService.record("select * from mitglied where id in (?)", MILLIS);
+
+        List<SqlQueryStatisticsDto> slowest = sqlProfilerService.getSlowest(10);
+
+        assertEquals(2, slowest.size(), "There should be one entry per normalized statement");
+        SqlQueryStatisticsDto inventar = slowest.get(0);
+        assertEquals("select * from inventar i1_0 where i1_0.wg_id = ? and i1_0.name = ?", inventar.getSql(), "Literals should be replaced, aliases kept");
+        assertEquals(2, inventar.getCount());
+        assertEquals(6.0, inventar.getTotalMillis(), 1e-9);
+        assertEquals(3.0, inventar.getMeanMillis(), 1e-9);
+        assertEquals(4.0, inventar.getMaxMillis(), 1e-9);
+        assertEquals("select * from mitglied where id in (?)", slowest.get(1).getSql(), "IN lists should be shortened");
+        assertEquals(2, slowest.get(1).getCount());
+        assertEquals(1, sqlProfilerService.getSlowest(1).size(), "The limit should be respected");
+    }
+
+    /**
+     * Test that a slow statement is logged in the background with the request that issued it.
+     */
+    @Test
+    public void testSlowStatementLogged(CapturedOutput output) throws InterruptedException {
+        MDC.put(RequestIdFilter.REQUEST_ID_KEY, "slow-request");
+        try {
+            sqlProfilerService.record("select * from aufgabe where wg_id = 1 and titel = 'Bad putzen'", 500 * MILLIS);
+            sqlProfilerService.record("select * from wg where id = 1", MILLIS);
+        } finally {
+            MDC.remove(RequestIdFilter.REQUEST_ID_KEY);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!output.getOut().contains("Slow SQL statement") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(output.getOut().contains("Slow SQL statement took 500 ms in request slow-request"), "The slow statement should be logged with its request");
+        assertTrue(output.getOut().contains("select * from aufgabe where wg_id = ? and titel = ?"), "The slow statement should be logged normalized");
+        assertFalse(output.getOut().contains("Bad putzen"), "Literals should not be logged");
+        assertFalse(output.getOut().contains("select * from wg where id = 1"), "A fast statement should not be logged");
+        assertEquals("slow-request", sqlProfilerService.getSlowest(1).get(0).getSlowestRequestId(), "The slowest execution should keep its request");
+    }
+
+    /**
+     * Test that concurrent requests with many distinct statements do not grow the statistics beyond their maximum size.
+     */
+    @Test
+    public void testMaxStatements() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 500; i++) {
+                        sqlProfilerService.record("select * from table_" + thread + "_" + i, MILLIS);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1000, sqlProfilerService.getSlowest(Integer.MAX_VALUE).size(), "The statistics should stop at wgkompass.sql.max-statements");
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.wgkompass.ServiceTests;
+
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.services.DepreciationMethod;
+import com.example.wgkompass.services.ValuationService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ValuationService.
+ * This class includes tests for the closed-form depreciation of inventory items.
+ */
+public class ValuationServiceTest {
+
+    private final ValuationService valuationService = new ValuationService();
+
+    private static final LocalDate VALUATION_DATE = LocalDate.of(2024, 6, 30);
+
+    /**
+     * Test for the declining-balance method, which should match repeated yearly depreciation.
+     */
+    @Test
+    public void testDecliningBalance() {
+        ValuationService.Valuation valuation = valuationService.forDate(VALUATION_DATE, DepreciationMethod.DECLINING_BALANCE);
+        double expected = 1000.0;
+        for (int year = 0; year < 3; year++) {
+            expected = expected * (1 - 10.0 / 100);
+        }
+        assertEquals(expected, valuation.currentValue(1000.0, purchasedOn(2021, 6, 1), 10.0), 1e-9, "Three full years should depreciate three times");
+        assertEquals(1000.0, valuation.currentValue(1000.0, purchasedOn(2024, 1, 1), 10.0), 1e-9, "Less than a year should not depreciate");
+    }
+
+    /**
+     * Test for the linear method, which should never go below zero.
+     */
+    @Test
+    public void testLinear() {
+        ValuationService.Valuation valuation = valuationService.forDate(VALUATION_DATE, DepreciationMethod.LINEAR);
+        assertEquals(700.0, valuation.currentValue(1000.0, purchasedOn(2021, 6, 1), 10.0), 1e-9, "Three full years should cost 30 percent of the price");
+        assertEquals(0.0, valuation.currentValue(1000.0, purchasedOn(2004, 6, 1), 10.0), 1e-9, "The value should not drop below zero");
+    }
+
+    /**
+     * Test that items purchased after the valuation date keep their price.
+     */
+    @Test
+    public void testPurchaseAfterValuationDate() {
+        ValuationService.Valuation valuation = valuationService.forDate(VALUATION_DATE, DepreciationMethod.DECLINING_BALANCE);
+        assertEquals(500.0, valuation.currentValue(500.0, purchasedOn(2026, 1, 1), 10.0), 1e-9, "Future purchases should not depreciate");
+    }
+
+    /**
+     * Test that a purchase in summer time is counted on its local day when the valuation date is in winter time,
+     * so the item is not one day older than it is.
+     */
+    @Test
+    public void testPurchaseAcrossDaylightSavingChange() {
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+        ValuationService.Valuation valuation = valuationService.forDate(LocalDate.of(2024, 3, 30), DepreciationMethod.DECLINING_BALANCE, berlin);
+        // 1094 days before the valuation date, half an hour after midnight summer time
+        Date kaufdatum = Date.from(LocalDateTime.of(2021, 4, 1, 0, 30).atZone(berlin).toInstant());
+        assertEquals(810.0, valuation.currentValue(1000.0, kaufdatum, 10.0), 1e-9, "Two full years should depreciate twice");
+    }
+
+    /**
+     * Test that a snapshot is only used for its own date and the declining-balance method.
+     */
+    @Test
+    public void testSnapshot() {
+        Inventar inventar = new Inventar();
+        inventar.setPreis(1000.0);
+        inventar.setKaufdatum(purchasedOn(2021, 6, 1));
+        inventar.setAbschreibungssatz(10.0);
+        inventar.setAktuellerWert(123.0);
+        inventar.setBewertungsdatum(VALUATION_DATE);
+
+        assertEquals(123.0, valuationService.forDate(VALUATION_DATE, DepreciationMethod.DECLINING_BALANCE).currentValue(inventar), 1e-9, "A current snapshot should be used");
+        assertEquals(700.0, valuationService.forDate(VALUATION_DATE, DepreciationMethod.LINEAR).currentValue(inventar), 1e-9, "The snapshot should not be used for another method");
+        assertEquals(729.0, valuationService.forDate(VALUATION_DATE.plusDays(1), DepreciationMethod.DECLINING_BALANCE).currentValue(inventar), 1e-9, "An outdated snapshot should be ignored");
+    }
+
+    private static Date purchasedOn(int year, int month, int day) {
+        return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
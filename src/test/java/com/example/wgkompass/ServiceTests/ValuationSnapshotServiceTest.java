@@ -0,0 +1,147 @@
+package com.example.wgkompass.ServiceTests;
+
+import com.example.wgkompass.dto.DissolveInventoryDto;
+import com.example.wgkompass.dto.DissolveResultDto;
+import com.example.wgkompass.dto.InventarDto;
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import com.example.wgkompass.services.DissolveService;
+import com.example.wgkompass.services.InventarService;
+import com.example.wgkompass.services.SettlementMode;
+import com.example.wgkompass.services.ValuationSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the valuation snapshots of inventory items.
+ * This class includes tests for refreshing the snapshots on save and by the scheduled job, and for reading them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ValuationSnapshotServiceTest {
+    @Autowired
+    private ValuationSnapshotService valuationSnapshotService;
+
+    @Autowired
+    private InventarService inventarService;
+
+    @Autowired
+    private DissolveService dissolveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG exampleWG;
+
+    /**
+     * Set up method to clear the database before each test and create the needed wg.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        exampleWG = wgRepository.save(neueWG);
+    }
+
+    /**
+     * Test that saving an inventory item stores its current value for today.
+     */
+    @Test
+    public void testSnapshotOnSave() {
+        Inventar sofa = createInventar("Sofa", 1000.0, LocalDate.now().minusYears(2).minusDays(1));
+
+        Inventar stored = inventarRepository.findById(sofa.getId()).orElseThrow();
+        assertEquals(LocalDate.now(), stored.getBewertungsdatum(), "The snapshot should be valid for today");
+        assertEquals(810.0, stored.getAktuellerWert(), 1e-9, "Two years should depreciate twice by 10 percent");
+    }
+
+    /**
+     * Test that a patch of the price invalidates the snapshot and the scheduled job refreshes it.
+     */
+    @Test
+    public void testRefreshAfterPatch() {
+        Inventar sofa = createInventar("Sofa", 1000.0, LocalDate.now().minusYears(2).minusDays(1));
+        createInventar("Tisch", 100.0, LocalDate.now());
+
+        assertTrue(inventarService.patch(sofa.getId(), new InventarDto(null, null, 2000.0, null, null, null, null)));
+        assertNull(inventarRepository.findById(sofa.getId()).orElseThrow().getBewertungsdatum(), "The patch should invalidate the snapshot");
+
+        assertEquals(1, valuationSnapshotService.refreshSnapshots(), "Only the patched item should be refreshed");
+        Inventar stored = inventarRepository.findById(sofa.getId()).orElseThrow();
+        assertEquals(LocalDate.now(), stored.getBewertungsdatum(), "The snapshot should be valid for today again");
+        assertEquals(1620.0, stored.getAktuellerWert(), 1e-9, "The snapshot should use the patched price");
+        assertEquals(0, valuationSnapshotService.refreshSnapshots(), "A second refresh should find nothing to do");
+    }
+
+    /**
+     * Test that a dissolution reads the current value from a valid snapshot.
+     */
+    @Test
+    public void testDissolveReadsSnapshot() {
+        Inventar sofa = createInventar("Sofa", 300.0, LocalDate.now());
+        Mitglied max = createMitglied("Max");
+        createMitglied("Anna");
+        // a snapshot value that differs from the calculated value shows which one is used
+        jdbcTemplate.update("update inventar set aktueller_wert = ? where id = ?", 200.0, sofa.getId());
+
+        DissolveResultDto result = dissolveService.dissolve(new DissolveInventoryDto(exampleWG.getId(), List.of(
+                new DissolveInventoryDto.InventoryMemberMapping(sofa.getId(), max.getId()))), SettlementMode.PAIRWISE);
+
+        assertEquals(200.0, result.getInventoryValues().get(0).getCurrentValue(), 1e-9, "The snapshot value should be used");
+        assertEquals(100.0, result.getObligations().get(0).getAmount(), 1e-9, "The obligation should be based on the snapshot value");
+    }
+
+    private Inventar createInventar(String name, double preis, LocalDate kaufdatum) {
+        Inventar inventar = new Inventar();
+        inventar.setName(name);
+        inventar.setPreis(preis);
+        inventar.setKaufdatum(Date.from(kaufdatum.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        inventar.setAbschreibungssatz(10.0);
+        inventar.setWg(exampleWG);
+        return inventarService.save(inventar);
+    }
+
+    private Mitglied createMitglied(String vorname) {
+        Mitglied mitglied = new Mitglied();
+        mitglied.setVorname(vorname);
+        mitglied.setNachname("Mustermann");
+        mitglied.setWg(exampleWG);
+        return mitgliedRepository.save(mitglied);
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.wgkompass.ServiceTests;
+import com.example.wgkompass.dto.WGOverviewDto;
 import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.Mitglied;
 import com.example.wgkompass.models.WG;
 import com.example.wgkompass.repositories.AufgabeRepository;
 import com.example.wgkompass.repositories.InventarRepository;
 import com.example.wgkompass.repositories.MitgliedRepository;
 import com.example.wgkompass.repositories.WGRepository;
 import com.example.wgkompass.services.InventarService;
+import com.example.wgkompass.services.WGService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +30,9 @@ public class WGServiceTest {
     @Autowired
     private InventarService inventarService;
 
+    @Autowired
+    private WGService wgService;
+
     @Autowired
     private InventarRepository inventarRepository;
 
@@ -99,4 +106,51 @@ public class WGServiceTest {
         WG updatedWG = wgRepository.getById(exampleWG.getId());
         assertEquals(updatedWG.getName(), "Test WG");
     }
+
+    /**
+     * Test for getting the WGs page by page
+     */
+    @Test
+    public void testGetPageOfWGs() {
+        for (String name : List.of("WG A", "WG B", "WG C")) {
+            WG wg = new WG();
+            wg.setName(name);
+            wgRepository.save(wg);
+        }
+        List<WG> firstPage = wgService.getPage(0, 2);
+        assertEquals(2, firstPage.size(), "The first page should be full");
+        assertEquals("WG A", firstPage.get(0).getName(), "The pages should be ordered by ID");
+        List<WG> secondPage = wgService.getPage(firstPage.get(1).getId(), 2);
+        assertEquals(1, secondPage.size(), "The second page should contain the remaining WG");
+        assertEquals("WG C", secondPage.get(0).getName(), "The second page should start after the cursor");
+    }
+
+    /**
+     * Test for getting the overview of a WG with its members and inventory items
+     */
+    @Test
+    public void testGetOverview() {
+        WG neueWG = new WG();
+        neueWG.setName("Beispiel WG");
+        WG exampleWG = wgRepository.save(neueWG);
+        Mitglied mitglied = new Mitglied();
+        mitglied.setVorname("Max");
+        mitglied.setNachname("Mustermann");
+        mitglied.setWg(exampleWG);
+        mitgliedRepository.save(mitglied);
+        Inventar inventar = new Inventar();
+        inventar.setName("Sofa");
+        inventar.setPreis(300.0);
+        inventar.setKaufdatum(new Date());
+        inventar.setAbschreibungssatz(10.0);
+        inventar.setWg(exampleWG);
+        inventarRepository.save(inventar);
+
+        WGOverviewDto overview = wgService.getOverview(exampleWG.getId()).orElseThrow();
+        assertEquals("Beispiel WG", overview.getName());
+        assertEquals(1, overview.getMitglieder().size(), "The overview should contain the member");
+        assertEquals(1, overview.getInventare().size(), "The overview should contain the inventory item");
+        assertTrue(overview.getAufgaben().isEmpty(), "The WG has no tasks");
+        assertTrue(wgService.getOverview(exampleWG.getId() + 1).isEmpty(), "An unknown WG should have no overview");
+    }
 }
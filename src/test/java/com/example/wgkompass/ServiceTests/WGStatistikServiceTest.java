@@ -0,0 +1,245 @@
+package com.example.wgkompass.ServiceTests;
+
+import com.example.wgkompass.dto.InventarDto;
+import com.example.wgkompass.dto.MitgliedDto;
+import com.example.wgkompass.dto.WGStatistikDto;
+import com.example.wgkompass.models.Aufgabe;
+import com.example.wgkompass.models.Inventar;
+import com.example.wgkompass.models.Mitglied;
+import com.example.wgkompass.models.WG;
+import com.example.wgkompass.repositories.AufgabeRepository;
+import com.example.wgkompass.repositories.InventarRepository;
+import com.example.wgkompass.repositories.MitgliedRepository;
+import com.example.wgkompass.repositories.WGRepository;
+import com.example.wgkompass.services.AufgabeService;
+import com.example.wgkompass.services.InventarService;
+import com.example.wgkompass.services.MitgliedService;
+import com.example.wgkompass.services.WGService;
+import com.example.wgkompass.services.WGStatistikService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for WGStatistikService.
+ * This class includes tests for the counters maintained on every change and for their recomputation.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class WGStatistikServiceTest {
+    @Autowired
+    private WGStatistikService wgStatistikService;
+
+    @Autowired
+    private WGService wgService;
+
+    @Autowired
+    private MitgliedService mitgliedService;
+
+    @Autowired
+    private InventarService inventarService;
+
+    @Autowired
+    private AufgabeService aufgabeService;
+
+    @Autowired
+    private AufgabeRepository aufgabeRepository;
+
+    @Autowired
+    private InventarRepository inventarRepository;
+
+    @Autowired
+    private MitgliedRepository mitgliedRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG exampleWG;
+
+    /**
+     * Set up method to clear the database before each test and create the needed wg.
+     */
+    @BeforeEach
+    public void setUp() {
+        //delete everything from test db
+        aufgabeRepository.deleteAll();
+        inventarRepository.deleteAll();
+        mitgliedRepository.deleteAll();
+        wgRepository.deleteAll();
+
+        exampleWG = createWG("Beispiel WG");
+    }
+
+    /**
+     * Test that saving members, inventory items and tasks updates the counters of their WG.
+     */
+    @Test
+    public void testCountersOnSave() {
+        assertStatistik(exampleWG, 0, 0, 0.0, 0);
+
+        Mitglied max = createMitglied("Max", exampleWG);
+        createInventar("Sofa", 300.0, exampleWG);
+        Inventar tisch = createInventar("Tisch", 90.0, exampleWG);
+        Aufgabe aufgabe = new Aufgabe();
+        aufgabe.setTitel("Putzen");
+        aufgabe.setWg(exampleWG);
+        aufgabe.setVerantwortlichesMitglied(max);
+        aufgabeService.save(aufgabe);
+        assertStatistik(exampleWG, 1, 2, 390.0, 1);
+
+        tisch.setPreis(100.0);
+        inventarService.save(tisch);
+        assertStatistik(exampleWG, 1, 2, 400.0, 1);
+        assertEquals(400.0, wgStatistikService.getByWgId(exampleWG.getId()).orElseThrow().getInventarAktuellerWert(), 1e-9,
+                "New items should not have depreciated yet");
+    }
+
+    /**
+     * Test that moving a member and an inventory item to another WG updates the counters of both WGs.
+     */
+    @Test
+    public void testCountersOnMove() {
+        WG andereWG = createWG("Andere WG");
+        Mitglied max = createMitglied("Max", exampleWG);
+        Inventar sofa = createInventar("Sofa", 300.0, exampleWG);
+
+        sofa.setWg(andereWG);
+        inventarService.save(sofa);
+        assertTrue(mitgliedService.patch(max.getId(), new MitgliedDto(null, null, null, andereWG.getId(), null)));
+
+        assertStatistik(exampleWG, 0, 0, 0.0, 0);
+        assertStatistik(andereWG, 1, 1, 300.0, 0);
+    }
+
+    /**
+     * Test that bulk saves and patches of the price update the counters.
+     */
+    @Test
+    public void testCountersOnBulkAndPatch() {
+        WG andereWG = createWG("Andere WG");
+        List<Inventar> inventare = inventarService.saveAll(List.of(inventar("Sofa", 300.0, exampleWG), inventar("Regal", 50.0, andereWG)));
+        assertStatistik(exampleWG, 0, 1, 300.0, 0);
+        assertStatistik(andereWG, 0, 1, 50.0, 0);
+
+        assertTrue(inventarService.patch(inventare.get(0).getId(), new InventarDto(null, null, 200.0, null, null, andereWG.getId(), null)));
+        assertStatistik(exampleWG, 0, 0, 0.0, 0);
+        assertStatistik(andereWG, 0, 2, 250.0, 0);
+    }
+
+    /**
+     * Test that the repair job recomputes counters that missed changes, and that missing counters are recomputed on read.
+     */
+    @Test
+    public void testRepair() {
+        createMitglied("Max", exampleWG);
+        // changes that bypass the services leave the counters behind
+        mitgliedRepository.save(mitglied("Anna", exampleWG));
+        inventarRepository.save(inventar("Sofa", 300.0, exampleWG));
+        assertStatistik(exampleWG, 1, 0, 0.0, 0);
+
+        assertTrue(wgStatistikService.repairAll() >= 1, "The counters of the WG should be recomputed");
+        assertStatistik(exampleWG, 2, 1, 300.0, 0);
+
+        WG neueWG = new WG();
+        neueWG.setName("Neue WG");
+        neueWG = wgRepository.save(neueWG);
+        mitgliedRepository.save(mitglied("Tom", neueWG));
+        assertStatistik(neueWG, 1, 0, 0.0, 0);
+        assertTrue(wgStatistikService.getByWgId(-1L).isEmpty(), "An unknown WG should have no counters");
+    }
+
+    /**
+     * Test that concurrent reads and writes of a WG without counters create them once instead of failing on the primary key.
+     */
+    @Test
+    public void testConcurrentInitialization() throws Exception {
+        WG leseWG = new WG();
+        leseWG.setName("Lese WG");
+        Long leseWgId = wgRepository.save(leseWG).getId();
+        WG schreibWG = new WG();
+        schreibWG.setName("Schreib WG");
+        WG savedSchreibWG = wgRepository.save(schreibWG);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String vorname = "Mitglied " + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return wgStatistikService.getByWgId(leseWgId).orElseThrow();
+                }));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return mitgliedService.save(mitglied(vorname, savedSchreibWG));
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertStatistik(savedSchreibWG, threads, 0, 0.0, 0);
+        assertEquals(0, wgStatistikService.getByWgId(leseWgId).orElseThrow().getMitglieder(), "The read WG should have no members");
+    }
+
+    private void assertStatistik(WG wg, long mitglieder, long inventare, double inventarKaufwert, long offeneAufgaben) {
+        WGStatistikDto statistik = wgStatistikService.getByWgId(wg.getId()).orElseThrow();
+        assertEquals(mitglieder, statistik.getMitglieder(), "Unexpected number of members of " + wg.getName());
+        assertEquals(inventare, statistik.getInventare(), "Unexpected number of inventory items of " + wg.getName());
+        assertEquals(inventarKaufwert, statistik.getInventarKaufwert(), 1e-9, "Unexpected purchase price of " + wg.getName());
+        assertEquals(offeneAufgaben, statistik.getOffeneAufgaben(), "Unexpected number of open tasks of " + wg.getName());
+    }
+
+    private WG createWG(String name) {
+        WG wg = new WG();
+        wg.setName(name);
+        return wgService.save(wg);
+    }
+
+    private Mitglied createMitglied(String vorname, WG wg) {
+        return mitgliedService.save(mitglied(vorname, wg));
+    }
+
+    private Mitglied mitglied(String vorname, WG wg) {
+        Mitglied mitglied = new Mitglied();
+        mitglied.setVorname(vorname);
+        mitglied.setNachname("Mustermann");
+        mitglied.setWg(wg);
+        return mitglied;
+    }
+
+    private Inventar createInventar(String name, double preis, WG wg) {
+        return inventarService.save(inventar(name, preis, wg));
+    }
+
+    private Inventar inventar(String name, double preis, WG wg) {
+        Inventar inventar = new Inventar();
+        inventar.setName(name);
+        inventar.setPreis(preis);
+        inventar.setKaufdatum(new Date());
+        inventar.setAbschreibungssatz(10.0);
+        inventar.setWg(wg);
+        return inventar;
+    }
+}
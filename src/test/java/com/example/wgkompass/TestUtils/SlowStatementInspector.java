@@ -0,0 +1,28 @@
+package com.example.wgkompass.TestUtils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * The SlowStatementInspector delays every SQL statement prepared by Hibernate to simulate a slow database.
+ * The delay in milliseconds is read from the system property "loadtest.latency", 20 ms by default.
+ */
+public class SlowStatementInspector implements StatementInspector {
+
+    private static final long LATENCY_MILLIS = Long.getLong("loadtest.latency", 20);
+
+    /**
+     * Waits for the configured latency and returns the statement unchanged.
+     *
+     * @param sql The SQL of the statement.
+     * @return The unchanged SQL.
+     */
+    @Override
+    public String inspect(String sql) {
+        try {
+            Thread.sleep(LATENCY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.wgkompass.TestUtils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The StatementCounter counts the SQL statements prepared by Hibernate.
+ * It is registered as StatementInspector in the test configuration, so tests can assert
+ * how many statements an operation runs and catch N+1 regressions.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    /**
+     * Counts the statement and returns it unchanged.
+     *
+     * @param sql The SQL of the statement.
+     * @return The unchanged SQL.
+     */
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.incrementAndGet();
+        return sql;
+    }
+
+    /**
+     * Runs the operation and counts the statements Hibernate prepares meanwhile.
+     * A statement that is reused for several JDBC batches is counted once.
+     *
+     * @param operation The operation to run.
+     * @return The number of statements.
+     * @throws Throwable if the operation fails.
+     */
+    public static int count(Executable operation) throws Throwable {
+        STATEMENTS.set(0);
+        operation.execute();
+        return STATEMENTS.get();
+    }
+}